@@ -84,6 +84,7 @@ CREATE INDEX idx_book_title ON books(title);
 CREATE INDEX idx_book_author ON books(author);
 CREATE INDEX idx_order_customer ON orders(customer_id);
 CREATE INDEX idx_order_status ON orders(status);
+CREATE INDEX idx_order_date ON orders(order_date);
 
 -- Insert sample data for testing
 
@@ -156,6 +157,40 @@ JOIN customers c ON o.customer_id = c.id
 JOIN order_items oi ON o.id = oi.order_id
 JOIN books b ON oi.book_id = b.id;
 
+-- Sales summary tables, maintained incrementally by the application
+CREATE TABLE sales_daily (
+    sale_date DATE PRIMARY KEY,
+    order_count INT NOT NULL DEFAULT 0,
+    items_sold INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0
+);
+
+CREATE TABLE sales_by_status (
+    status VARCHAR(20) PRIMARY KEY,
+    order_count INT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(14, 2) NOT NULL DEFAULT 0
+);
+
+CREATE TABLE sales_by_book (
+    book_id INT PRIMARY KEY,
+    quantity_sold INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0
+);
+
+-- Journal sequence already applied to books.quantity by the in-memory inventory
+CREATE TABLE inventory_checkpoint (
+    id TINYINT PRIMARY KEY,
+    journal_seq BIGINT NOT NULL
+);
+
+INSERT INTO inventory_checkpoint (id, journal_seq) VALUES (1, 0);
+
+-- Written to the primary by the application and read back from the replica to measure lag
+CREATE TABLE replication_heartbeat (
+    id TINYINT PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+);
+
 -- Stored procedure to get bestselling books
 DELIMITER //
 CREATE PROCEDURE GetBestSellingBooks(IN limit_count INT)
@@ -0,0 +1,88 @@
+package controller;
+
+import dao.BenchmarkDatabase;
+import dao.BookCache;
+import dao.CatalogListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.BookSearchIndex;
+import util.DBConnection;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookServletBenchmark {
+    @Param({"catalog", "nextPage", "category", "search"})
+    private String scenario;
+    
+    @Param({"true", "false"})
+    private boolean cached;
+    
+    private BookServlet servlet;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    
+    @Setup
+    public void setUp() throws SQLException, ServletException, InterruptedException {
+        BenchmarkDatabase.start();
+        BookSearchIndex.getInstance().start();
+        while (!BookSearchIndex.getInstance().isReady()) {
+            Thread.sleep(10);
+        }
+        
+        servlet = new BookServlet();
+        servlet.init();
+        
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        when(request.getServletPath()).thenReturn("/books");
+        when(request.getRequestDispatcher(anyString())).thenReturn(mock(RequestDispatcher.class));
+        if ("nextPage".equals(scenario)) {
+            when(request.getParameter("after")).thenReturn(String.valueOf(BenchmarkDatabase.BOOK_COUNT / 2));
+        } else if ("category".equals(scenario)) {
+            when(request.getParameter("category")).thenReturn("Science");
+        } else if ("search".equals(scenario)) {
+            when(request.getParameter("search")).thenReturn("benchmark author 42");
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        BookSearchIndex.getInstance().shutdown();
+        DBConnection.shutdown();
+    }
+    
+    @Benchmark
+    public HttpServletRequest listBooks() throws ServletException, IOException {
+        if (!cached) {
+            BookCache.getInstance().bookChanged(CatalogListener.ALL_BOOKS);
+        }
+        servlet.doGet(request, response);
+        return request;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package dao;
+
+import util.DBConnection;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+public class BenchmarkDatabase {
+    public static final int BOOK_COUNT = 1000;
+    public static final int ORDER_COUNT = 1000;
+    
+    private static final String URL = "jdbc:h2:mem:bookstore;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String[] CATEGORIES = {"Fiction", "Science", "History", "Children", "Technology"};
+    
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS customers (id INT PRIMARY KEY AUTO_INCREMENT, full_name VARCHAR(100) NOT NULL, " +
+            "email VARCHAR(100) UNIQUE NOT NULL, phone VARCHAR(20), address TEXT, " +
+            "created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+        "CREATE TABLE IF NOT EXISTS books (id INT PRIMARY KEY AUTO_INCREMENT, title VARCHAR(200) NOT NULL, " +
+            "author VARCHAR(100) NOT NULL, isbn VARCHAR(20) UNIQUE, price DECIMAL(10, 2) NOT NULL, " +
+            "quantity INT DEFAULT 0, category VARCHAR(50), description TEXT, image_url VARCHAR(500), " +
+            "published_date DATE, created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+        "CREATE TABLE IF NOT EXISTS orders (id INT PRIMARY KEY AUTO_INCREMENT, customer_id INT NOT NULL, " +
+            "order_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP, total_amount DECIMAL(10, 2) NOT NULL, " +
+            "status VARCHAR(20) DEFAULT 'PENDING', shipping_address VARCHAR(500), payment_method VARCHAR(50), " +
+            "notes TEXT)",
+        "CREATE TABLE IF NOT EXISTS order_items (id INT PRIMARY KEY AUTO_INCREMENT, order_id INT NOT NULL, " +
+            "book_id INT NOT NULL, quantity INT NOT NULL, price DECIMAL(10, 2) NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS inventory_checkpoint (id TINYINT PRIMARY KEY, journal_seq BIGINT NOT NULL)"
+    };
+    
+    private static boolean started;
+    
+    public static synchronized void start() throws SQLException {
+        if (started) {
+            return;
+        }
+        Properties props = new Properties();
+        props.setProperty(DBConnection.DRIVER_KEY, "org.h2.Driver");
+        props.setProperty(DBConnection.URL_KEY, URL);
+        props.setProperty(DBConnection.USERNAME_KEY, "sa");
+        props.setProperty(DBConnection.PASSWORD_KEY, "");
+        DBConnection.configure(props);
+        
+        try (Connection conn = DBConnection.createConnection()) {
+            try (Statement st = conn.createStatement()) {
+                for (String sql : SCHEMA) {
+                    st.execute(sql);
+                }
+            }
+            seedBooks(conn);
+            seedOrders(conn);
+        }
+        started = true;
+    }
+    
+    private static void seedBooks(Connection conn) throws SQLException {
+        String sql = "INSERT INTO books (title, author, isbn, price, quantity, category, description, image_url, published_date) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= BOOK_COUNT; i++) {
+                ps.setString(1, "Benchmark Book " + i);
+                ps.setString(2, "Author " + (i % 97));
+                ps.setString(3, String.format("978-0-%06d-%02d", i, i % 100));
+                ps.setBigDecimal(4, BigDecimal.valueOf(500 + i * 37L % 9500, 2));
+                ps.setInt(5, i % 50);
+                ps.setString(6, CATEGORIES[i % CATEGORIES.length]);
+                ps.setString(7, "A description of benchmark book number " + i + " used to size the catalog rows.");
+                ps.setString(8, "images/books/" + i + ".jpg");
+                ps.setDate(9, Date.valueOf("2020-01-01"));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+    
+    private static void seedOrders(Connection conn) throws SQLException {
+        String sql = "INSERT INTO orders (customer_id, total_amount, status, shipping_address, payment_method, notes) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= ORDER_COUNT; i++) {
+                ps.setInt(1, 1 + i % 100);
+                ps.setBigDecimal(2, BigDecimal.valueOf(1000 + i * 53L % 90000, 2));
+                ps.setString(3, i % 3 == 0 ? "DELIVERED" : "PENDING");
+                ps.setString(4, i + " Benchmark Street");
+                ps.setString(5, "COD");
+                ps.setString(6, i % 5 == 0 ? "Leave at the door" : null);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package dao;
+
+import model.Book;
+import model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import util.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaoMappingBenchmark {
+    private final BookDAO bookDAO = new BookDAO();
+    private final OrderDAO orderDAO = new OrderDAO();
+    
+    private static final String BOOK_SQL = "SELECT " + BookDAO.COLUMNS + " FROM books";
+    private static final String BOOK_LIST_SQL = "SELECT " + BookDAO.LIST_COLUMNS + " FROM books";
+    private static final String ORDER_SQL = "SELECT " + OrderDAO.COLUMNS + " FROM orders";
+    
+    private Connection connection;
+    private PreparedStatement bookStatement;
+    private PreparedStatement bookListStatement;
+    private PreparedStatement orderStatement;
+    private ResultSet books;
+    private ResultSet bookList;
+    private ResultSet orders;
+    
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start();
+        connection = DBConnection.createConnection();
+        bookStatement = connection.prepareStatement(BOOK_SQL,
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        bookListStatement = connection.prepareStatement(BOOK_LIST_SQL,
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        orderStatement = connection.prepareStatement(ORDER_SQL,
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        books = bookStatement.executeQuery();
+        bookList = bookListStatement.executeQuery();
+        orders = orderStatement.executeQuery();
+    }
+    
+    @TearDown
+    public void tearDown() throws SQLException {
+        books.close();
+        bookList.close();
+        orders.close();
+        bookStatement.close();
+        bookListStatement.close();
+        orderStatement.close();
+        connection.close();
+        DBConnection.shutdown();
+    }
+    
+    @Benchmark
+    public void mapBooks(Blackhole blackhole) throws SQLException {
+        books.beforeFirst();
+        RowMapper<Book> mapper = bookDAO.rowMapper(BOOK_SQL, books);
+        while (books.next()) {
+            blackhole.consume(mapper.map(books));
+        }
+    }
+    
+    @Benchmark
+    public void mapBooksByColumnName(Blackhole blackhole) throws SQLException {
+        books.beforeFirst();
+        while (books.next()) {
+            blackhole.consume(new Book(
+                books.getInt("id"),
+                books.getString("title"),
+                books.getString("author"),
+                books.getString("isbn"),
+                books.getBigDecimal("price"),
+                books.getInt("quantity"),
+                books.getString("category"),
+                books.getString("description"),
+                books.getString("image_url"),
+                books.getDate("published_date"),
+                books.getTimestamp("created_date")
+            ));
+        }
+    }
+    
+    @Benchmark
+    public void mapBookListProjection(Blackhole blackhole) throws SQLException {
+        bookList.beforeFirst();
+        RowMapper<Book> mapper = bookDAO.rowMapper(BOOK_LIST_SQL, bookList);
+        while (bookList.next()) {
+            blackhole.consume(mapper.map(bookList));
+        }
+    }
+    
+    @Benchmark
+    public void mapOrders(Blackhole blackhole) throws SQLException {
+        orders.beforeFirst();
+        RowMapper<Order> mapper = orderDAO.rowMapper(ORDER_SQL, orders);
+        while (orders.next()) {
+            blackhole.consume(mapper.map(orders));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+    @Param({"1", "10", "50"})
+    private int lines;
+    
+    private List<CartItem> cartItems;
+    private ShoppingCart cart;
+    
+    @Setup
+    public void setUp() {
+        cartItems = new ArrayList<>(lines);
+        cart = new ShoppingCart();
+        for (int i = 1; i <= lines; i++) {
+            BigDecimal price = BigDecimal.valueOf(999 + i * 125L, 2);
+            Book book = new Book();
+            book.setId(i);
+            book.setTitle("Benchmark Book " + i);
+            book.setPrice(price);
+            cartItems.add(new CartItem(book, 1 + i % 3));
+            cart.addItem(i, 1 + i % 3, price);
+        }
+    }
+    
+    @Benchmark
+    public BigDecimal cartItemSubtotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem item : cartItems) {
+            total = total.add(item.getSubtotal());
+        }
+        return total;
+    }
+    
+    @Benchmark
+    public BigDecimal cartItemSubtotalAfterUpdate() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem item : cartItems) {
+            item.setQuantity(item.getQuantity());
+            total = total.add(item.getSubtotal());
+        }
+        return total;
+    }
+    
+    @Benchmark
+    public BigDecimal shoppingCartSubtotal() {
+        return cart.getSubtotal();
+    }
+}
\ No newline at end of file
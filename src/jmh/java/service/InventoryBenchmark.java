@@ -0,0 +1,76 @@
+package service;
+
+import dao.BenchmarkDatabase;
+import dao.BookDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import util.DBConnection;
+import util.StripedCounter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class InventoryBenchmark {
+    private static final int BESTSELLER = 1;
+    private static final int STOCK = 1_000_000_000;
+    private static final Map<Integer, Integer> ONE_COPY = Collections.singletonMap(BESTSELLER, 1);
+    
+    private final BookDAO bookDAO = new BookDAO();
+    private final StripedCounter counter = new StripedCounter(8, Long.MAX_VALUE / 2);
+    private InventoryService inventory;
+    
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        BenchmarkDatabase.start();
+        bookDAO.updateQuantity(BESTSELLER, STOCK);
+        Properties props = new Properties();
+        props.setProperty(InventoryService.MODE_KEY, InventoryService.MEMORY);
+        props.setProperty(InventoryService.JOURNAL_DIR_KEY,
+                Files.createTempDirectory("inventory-benchmark").toString());
+        InventoryService.configure(props);
+        inventory = InventoryService.getInstance();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        InventoryService.shutdown();
+        DBConnection.shutdown();
+    }
+    
+    @Benchmark
+    public boolean decreaseInDatabase() throws SQLException {
+        return bookDAO.decreaseQuantity(BESTSELLER, 1);
+    }
+    
+    @Benchmark
+    public boolean reserveInMemory() throws SQLException, IOException {
+        return inventory.reserve(ONE_COPY).isReserved();
+    }
+    
+    @Benchmark
+    public boolean stripedCounterOnly() {
+        return counter.tryAcquire(1);
+    }
+}
\ No newline at end of file
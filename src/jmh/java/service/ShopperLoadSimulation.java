@@ -0,0 +1,145 @@
+package service;
+
+import dao.BenchmarkDatabase;
+import dao.BookDAO;
+import dao.SortOrder;
+import metrics.LatencyHistogram;
+import util.DBConnection;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ShopperLoadSimulation {
+    private static final String[] CATEGORIES = {"Fiction", "Science", "History", "Children", "Technology"};
+    private static final int PAGE_SIZE = 24;
+    private static final long RETRY_DELAY_MS = 10;
+    
+    private final BookDAO bookDAO = new BookDAO();
+    private final int shoppers;
+    private final int platformThreads;
+    private final long durationMillis;
+    private final long ioLatencyMillis;
+    
+    ShopperLoadSimulation(int shoppers, int platformThreads, long durationMillis, long ioLatencyMillis) {
+        this.shoppers = shoppers;
+        this.platformThreads = platformThreads;
+        this.durationMillis = durationMillis;
+        this.ioLatencyMillis = ioLatencyMillis;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        ShopperLoadSimulation simulation = new ShopperLoadSimulation(
+                Integer.getInteger("loadtest.shoppers", 2000),
+                Integer.getInteger("loadtest.platformThreads", 200),
+                TimeUnit.SECONDS.toMillis(Integer.getInteger("loadtest.seconds", 20)),
+                Long.getLong("loadtest.ioLatencyMs", 20));
+        String modes = System.getProperty("loadtest.modes", RequestExecutor.PLATFORM + "," + RequestExecutor.VIRTUAL);
+        
+        BenchmarkDatabase.start();
+        System.out.printf("%-10s %10s %12s %10s %10s %10s %10s%n",
+                "mode", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "rejected");
+        try {
+            for (String mode : modes.split(",")) {
+                simulation.run(mode.trim());
+            }
+        } finally {
+            RequestExecutor.shutdown();
+            DBConnection.shutdown();
+        }
+    }
+    
+    void run(String mode) throws InterruptedException {
+        Properties props = new Properties();
+        props.setProperty(RequestExecutor.MODE_KEY, mode);
+        props.setProperty(RequestExecutor.THREADS_KEY, String.valueOf(platformThreads));
+        props.setProperty(RequestExecutor.QUEUE_KEY, String.valueOf(2 * shoppers));
+        props.setProperty(RequestExecutor.MAX_CONCURRENT_KEY, String.valueOf(2 * shoppers));
+        RequestExecutor.configure(props);
+        RequestExecutor executor = RequestExecutor.getInstance();
+        
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong rejected = new AtomicLong();
+        CountDownLatch finished = new CountDownLatch(shoppers);
+        ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        try {
+            for (int i = 0; i < shoppers; i++) {
+                new Shopper(executor, retries, latency, rejected, finished, deadline).next();
+            }
+            finished.await();
+        } finally {
+            retries.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        System.out.printf("%-10s %10d %12.1f %10.2f %10.2f %10.2f %10d%n",
+                executor.getMode(), latency.getCount(), latency.getCount() / seconds,
+                latency.getPercentileNanos(50) / 1e6, latency.getPercentileNanos(99) / 1e6,
+                latency.getMaxNanos() / 1e6, rejected.get());
+    }
+    
+    private void visit(int step) throws Exception {
+        Thread.sleep(ioLatencyMillis);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (step % 3) {
+            case 0:
+                bookDAO.findPage(random.nextInt(BenchmarkDatabase.BOOK_COUNT), PAGE_SIZE, SortOrder.DESC);
+                break;
+            case 1:
+                bookDAO.findById(1 + random.nextInt(BenchmarkDatabase.BOOK_COUNT));
+                break;
+            default:
+                bookDAO.findByCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                break;
+        }
+    }
+    
+    private class Shopper {
+        private final RequestExecutor executor;
+        private final ScheduledExecutorService retries;
+        private final LatencyHistogram latency;
+        private final AtomicLong rejected;
+        private final CountDownLatch finished;
+        private final long deadline;
+        private int step;
+        
+        Shopper(RequestExecutor executor, ScheduledExecutorService retries, LatencyHistogram latency,
+                AtomicLong rejected, CountDownLatch finished, long deadline) {
+            this.executor = executor;
+            this.retries = retries;
+            this.latency = latency;
+            this.rejected = rejected;
+            this.finished = finished;
+            this.deadline = deadline;
+        }
+        
+        void next() {
+            if (System.nanoTime() >= deadline) {
+                finished.countDown();
+                return;
+            }
+            long submitted = System.nanoTime();
+            try {
+                executor.submit(() -> {
+                    try {
+                        visit(step++);
+                        latency.record(System.nanoTime() - submitted);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                    next();
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+                retries.schedule(this::next, RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
\ No newline at end of file
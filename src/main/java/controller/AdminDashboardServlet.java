@@ -0,0 +1,68 @@
+package controller;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import service.SalesAggregates;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.sql.Date;
+
+@WebServlet("/admin/dashboard")
+public class AdminDashboardServlet extends HttpServlet {
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MAX_DAYS = 366;
+    private static final int DEFAULT_TOP_SELLERS = 10;
+    private static final int MAX_TOP_SELLERS = 100;
+    
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping()
+            .registerTypeAdapter(Date.class, (JsonSerializer<Date>) (date, type, context) -> new JsonPrimitive(date.toString()))
+            .setDateFormat("yyyy-MM-dd HH:mm:ss").create();
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        int days = getInt(request, "days", DEFAULT_DAYS, MAX_DAYS);
+        int top = getInt(request, "top", DEFAULT_TOP_SELLERS, MAX_TOP_SELLERS);
+        SalesAggregates.Dashboard dashboard = SalesAggregates.getInstance().getDashboard(days, top);
+        
+        response.setHeader("Cache-Control", "no-store");
+        if ("json".equals(request.getParameter("format"))) {
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            gson.toJson(dashboard, response.getWriter());
+            return;
+        }
+        request.setAttribute("dashboard", dashboard);
+        request.setAttribute("days", days);
+        request.setAttribute("top", top);
+        request.getRequestDispatcher("/jsp/admin-dashboard.jsp").forward(request, response);
+    }
+    
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if ("reconcile".equals(request.getParameter("action"))) {
+            SalesAggregates.getInstance().reconcileAsync();
+        }
+        response.sendRedirect(request.getContextPath() + "/admin/dashboard");
+    }
+    
+    private static int getInt(HttpServletRequest request, String name, int defaultValue, int max) {
+        String value = request.getParameter(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(1, Math.min(max, Integer.parseInt(value.trim())));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
\ No newline at end of file
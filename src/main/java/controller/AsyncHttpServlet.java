@@ -0,0 +1,163 @@
+package controller;
+
+import metrics.QueryDiagnostics;
+import service.RequestExecutor;
+import util.QueryTimeout;
+import util.ReplicaRouter;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public abstract class AsyncHttpServlet extends HttpServlet {
+    private static final String ASYNC_STATE_ATTRIBUTE = AsyncHttpServlet.class.getName() + ".state";
+    private static final String RETRY_AFTER_SECONDS = "5";
+    
+    protected void execute(HttpServletRequest request, HttpServletResponse response, Work work)
+            throws ServletException, IOException {
+        RequestExecutor executor = RequestExecutor.getInstance();
+        if (!executor.isEnabled() || !request.isAsyncSupported() || request.isAsyncStarted()) {
+            QueryTimeout.begin();
+            try {
+                work.run();
+            } finally {
+                QueryTimeout.end();
+            }
+            return;
+        }
+        
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(executor.getTimeoutMillis());
+        AsyncState state = new AsyncState(asyncContext);
+        request.setAttribute(ASYNC_STATE_ATTRIBUTE, state);
+        asyncContext.addListener(state);
+        
+        QueryDiagnostics diagnostics = QueryDiagnostics.getInstance();
+        QueryDiagnostics.RequestTrace trace = diagnostics.currentTrace();
+        ReplicaRouter.Session session = ReplicaRouter.currentSession();
+        try {
+            state.task = executor.submit(() -> {
+                if (state.abandoned) {
+                    return;
+                }
+                diagnostics.resume(trace);
+                ReplicaRouter.resume(session);
+                QueryTimeout.begin();
+                try {
+                    work.run();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    state.fail(response);
+                } finally {
+                    diagnostics.suspend();
+                    ReplicaRouter.end();
+                    QueryTimeout.end();
+                    state.complete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            state.unavailable(response);
+        }
+    }
+    
+    protected void render(HttpServletRequest request, HttpServletResponse response, String path)
+            throws ServletException, IOException {
+        AsyncState state = (AsyncState) request.getAttribute(ASYNC_STATE_ATTRIBUTE);
+        if (state != null) {
+            if (!state.abandoned) {
+                state.dispatch(path);
+            }
+        } else {
+            request.getRequestDispatcher(path).forward(request, response);
+        }
+    }
+    
+    protected interface Work {
+        void run() throws ServletException, IOException;
+    }
+    
+    private static class AsyncState implements AsyncListener {
+        private final AsyncContext asyncContext;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile Future<?> task;
+        private volatile boolean abandoned;
+        
+        AsyncState(AsyncContext asyncContext) {
+            this.asyncContext = asyncContext;
+        }
+        
+        void dispatch(String path) {
+            if (finished.compareAndSet(false, true)) {
+                asyncContext.dispatch(path);
+            }
+        }
+        
+        void complete() {
+            if (finished.compareAndSet(false, true)) {
+                asyncContext.complete();
+            }
+        }
+        
+        void fail(HttpServletResponse response) {
+            if (finished.compareAndSet(false, true)) {
+                sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                asyncContext.complete();
+            }
+        }
+        
+        void unavailable(HttpServletResponse response) {
+            if (finished.compareAndSet(false, true)) {
+                response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+                sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                asyncContext.complete();
+            }
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            abandon();
+            unavailable((HttpServletResponse) asyncContext.getResponse());
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            abandon();
+            complete();
+        }
+        
+        private void abandon() {
+            abandoned = true;
+            Future<?> running = task;
+            if (running != null) {
+                running.cancel(false);
+            }
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+        
+        private static void sendError(HttpServletResponse response, int status) {
+            if (response.isCommitted()) {
+                return;
+            }
+            try {
+                response.sendError(status);
+            } catch (IOException | IllegalStateException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package controller;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.util.Streams;
+import service.BookImporter;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+@WebServlet("/admin/books/import")
+public class BookImportServlet extends HttpServlet {
+    private static final String MAX_UPLOAD_BYTES_KEY = "bookImportMaxBytes";
+    private static final long DEFAULT_MAX_UPLOAD_BYTES = 512L * 1024 * 1024;
+    
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private long maxUploadBytes;
+    
+    @Override
+    public void init() throws ServletException {
+        String value = getServletContext().getInitParameter(MAX_UPLOAD_BYTES_KEY);
+        maxUploadBytes = value != null && !value.trim().isEmpty() ? Long.parseLong(value.trim()) : DEFAULT_MAX_UPLOAD_BYTES;
+    }
+    
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (!ServletFileUpload.isMultipartContent(request)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Expected a multipart/form-data upload");
+            return;
+        }
+        
+        ServletFileUpload upload = new ServletFileUpload();
+        upload.setSizeMax(maxUploadBytes);
+        upload.setHeaderEncoding(StandardCharsets.UTF_8.name());
+        
+        String format = request.getParameter("format");
+        BookImporter.ImportReport report = null;
+        try {
+            FileItemIterator items = upload.getItemIterator(request);
+            while (items.hasNext()) {
+                FileItemStream item = items.next();
+                try (InputStream in = item.openStream()) {
+                    if (item.isFormField()) {
+                        if ("format".equals(item.getFieldName())) {
+                            format = Streams.asString(in, StandardCharsets.UTF_8.name()).trim();
+                        }
+                    } else if (report == null) {
+                        report = new BookImporter().importStream(in, resolveFormat(format, item));
+                    }
+                }
+            }
+        } catch (FileUploadBase.SizeLimitExceededException e) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, e.getMessage());
+            return;
+        } catch (FileUploadBase.FileUploadIOException e) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, e.getCause().getMessage());
+            return;
+        } catch (FileUploadException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        
+        if (report == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "No file uploaded");
+            return;
+        }
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        gson.toJson(report, response.getWriter());
+    }
+    
+    private BookImporter.Format resolveFormat(String format, FileItemStream item) {
+        if (format != null && !format.isEmpty()) {
+            return "csv".equalsIgnoreCase(format) ? BookImporter.Format.CSV : BookImporter.Format.JSONL;
+        }
+        return BookImporter.detectFormat(item.getName(), item.getContentType());
+    }
+}
\ No newline at end of file
@@ -1,25 +1,42 @@
 package controller;
 
 import dao.BookDAO;
+import dao.CachingBookDAO;
+import dao.CatalogVersion;
+import dao.SortOrder;
 import model.Book;
+import service.BookSearchIndex;
+import service.FragmentCache;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
-import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.List;
 
-@WebServlet({"/books", "/book", "/admin/books/*"})
-public class BookServlet extends HttpServlet {
+@WebServlet(urlPatterns = {"/books", "/book", "/admin/books/*"}, asyncSupported = true)
+public class BookServlet extends AsyncHttpServlet {
+    private static final int PAGE_SIZE = 24;
+    private static final int ADMIN_PAGE_SIZE = 50;
+    private static final int SEARCH_LIMIT = 100;
+    private static final int MAX_FRAGMENT_KEY_TERM = 100;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
     private BookDAO bookDAO;
+    private CatalogVersion catalogVersion;
+    private FragmentCache fragmentCache;
     
     @Override
     public void init() throws ServletException {
-        bookDAO = new BookDAO();
+        bookDAO = new CachingBookDAO();
+        catalogVersion = CatalogVersion.getInstance();
+        fragmentCache = FragmentCache.getInstance();
     }
     
     @Override
@@ -28,19 +45,31 @@ public class BookServlet extends HttpServlet {
         String pathInfo = request.getPathInfo();
         String servletPath = request.getServletPath();
         
-        try {
-            if ("/book".equals(servletPath)) {
-                showBookDetail(request, response);
-            } else if (servletPath.startsWith("/admin")) {
-                handleAdminRequest(request, response, pathInfo);
-            } else {
-                listBooks(request, response);
+        if (!servletPath.startsWith("/admin")) {
+            if (isNotModified(request, response)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+            if ("/books".equals(servletPath) && renderCachedFragment(request, response)) {
+                return;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            request.setAttribute("error", "Database error: " + e.getMessage());
-            request.getRequestDispatcher("/jsp/error.jsp").forward(request, response);
         }
+        
+        execute(request, response, () -> {
+            try {
+                if ("/book".equals(servletPath)) {
+                    showBookDetail(request, response);
+                } else if (servletPath.startsWith("/admin")) {
+                    handleAdminRequest(request, response, pathInfo);
+                } else {
+                    listBooks(request, response);
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                request.setAttribute("error", "Database error: " + e.getMessage());
+                render(request, response, "/jsp/error.jsp");
+            }
+        });
     }
     
     @Override
@@ -48,19 +77,86 @@ public class BookServlet extends HttpServlet {
             throws ServletException, IOException {
         String action = request.getParameter("action");
         
-        try {
-            if ("create".equals(action)) {
-                createBook(request, response);
-            } else if ("update".equals(action)) {
-                updateBook(request, response);
-            } else if ("delete".equals(action)) {
-                deleteBook(request, response);
+        execute(request, response, () -> {
+            try {
+                if ("create".equals(action)) {
+                    createBook(request, response);
+                } else if ("update".equals(action)) {
+                    updateBook(request, response);
+                } else if ("delete".equals(action)) {
+                    deleteBook(request, response);
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                request.setAttribute("error", "Database error: " + e.getMessage());
+                render(request, response, "/jsp/error.jsp");
+            }
+        });
+    }
+    
+    private boolean isNotModified(HttpServletRequest request, HttpServletResponse response) {
+        HttpSession session = request.getSession(false);
+        Object username = session != null ? session.getAttribute("username") : null;
+        Object role = session != null ? session.getAttribute("role") : null;
+        long lastModified = catalogVersion.getLastModified();
+        String etag = "W/\"" + Long.toHexString(catalogVersion.getVersion()) + "-" + Long.toHexString(hash(
+                catalogVersion.getEpoch() + "|" + request.getServletPath() + "?" + request.getQueryString()
+                + "|" + role + "|" + username)) + "\"";
+        
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Cache-Control", "private, no-cache");
+        response.addHeader("Vary", "Cookie");
+        
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return matchesEtag(ifNoneMatch, etag);
+        }
+        if (username == null) {
+            try {
+                long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+                return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+    
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || tag.equals(etag) || tag.equals(opaque)) {
+                return true;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            request.setAttribute("error", "Database error: " + e.getMessage());
-            request.getRequestDispatcher("/jsp/error.jsp").forward(request, response);
         }
+        return false;
+    }
+    
+    private static long hash(String value) {
+        long hash = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+    
+    private boolean renderCachedFragment(HttpServletRequest request, HttpServletResponse response) 
+            throws ServletException, IOException {
+        String fragmentKey = fragmentKey(request, request.getParameter("category"), request.getParameter("search"));
+        if (fragmentKey == null) {
+            return false;
+        }
+        String cachedFragment = fragmentCache.get(fragmentKey);
+        if (cachedFragment == null) {
+            request.setAttribute("fragmentKey", fragmentKey);
+            return false;
+        }
+        request.setAttribute("cachedFragment", cachedFragment);
+        request.getRequestDispatcher("/jsp/book-list.jsp").forward(request, response);
+        return true;
     }
     
     private void listBooks(HttpServletRequest request, HttpServletResponse response) 
@@ -68,22 +164,23 @@ public class BookServlet extends HttpServlet {
         String category = request.getParameter("category");
         String search = request.getParameter("search");
         
+        
         List<Book> books;
         if (search != null && !search.trim().isEmpty()) {
-            books = bookDAO.search(search);
+            books = searchBooks(search);
             request.setAttribute("searchTerm", search);
         } else if (category != null && !category.trim().isEmpty()) {
             books = bookDAO.findByCategory(category);
             request.setAttribute("selectedCategory", category);
         } else {
-            books = bookDAO.findAll();
+            books = findPage(request, PAGE_SIZE);
         }
         
         List<String> categories = bookDAO.getAllCategories();
         
         request.setAttribute("books", books);
         request.setAttribute("categories", categories);
-        request.getRequestDispatcher("/jsp/book-list.jsp").forward(request, response);
+        render(request, response, "/jsp/book-list.jsp");
     }
     
     private void showBookDetail(HttpServletRequest request, HttpServletResponse response) 
@@ -93,7 +190,7 @@ public class BookServlet extends HttpServlet {
             Book book = bookDAO.findById(Integer.parseInt(bookId));
             if (book != null) {
                 request.setAttribute("book", book);
-                request.getRequestDispatcher("/jsp/book-detail.jsp").forward(request, response);
+                render(request, response, "/jsp/book-detail.jsp");
             } else {
                 response.sendRedirect(request.getContextPath() + "/books");
             }
@@ -105,20 +202,20 @@ public class BookServlet extends HttpServlet {
     private void handleAdminRequest(HttpServletRequest request, HttpServletResponse response, String pathInfo) 
             throws SQLException, ServletException, IOException {
         if (pathInfo == null || "/".equals(pathInfo)) {
-            List<Book> books = bookDAO.findAll();
+            List<Book> books = findPage(request, ADMIN_PAGE_SIZE);
             request.setAttribute("books", books);
-            request.getRequestDispatcher("/jsp/admin/book-list.jsp").forward(request, response);
+            render(request, response, "/jsp/admin/book-list.jsp");
         } else if ("/new".equals(pathInfo)) {
             List<String> categories = bookDAO.getAllCategories();
             request.setAttribute("categories", categories);
-            request.getRequestDispatcher("/jsp/admin/book-form.jsp").forward(request, response);
+            render(request, response, "/jsp/admin/book-form.jsp");
         } else if (pathInfo.startsWith("/edit/")) {
             String bookId = pathInfo.substring(6);
             Book book = bookDAO.findById(Integer.parseInt(bookId));
             List<String> categories = bookDAO.getAllCategories();
             request.setAttribute("book", book);
             request.setAttribute("categories", categories);
-            request.getRequestDispatcher("/jsp/admin/book-form.jsp").forward(request, response);
+            render(request, response, "/jsp/admin/book-form.jsp");
         }
     }
     
@@ -144,6 +241,49 @@ public class BookServlet extends HttpServlet {
         response.sendRedirect(request.getContextPath() + "/admin/books");
     }
     
+    private String fragmentKey(HttpServletRequest request, String category, String search) {
+        if ((search != null && search.length() > MAX_FRAGMENT_KEY_TERM)
+                || (category != null && category.length() > MAX_FRAGMENT_KEY_TERM)) {
+            return null;
+        }
+        HttpSession session = request.getSession(false);
+        Object role = session != null ? session.getAttribute("role") : null;
+        int after = parseCursor(request.getParameter("after"));
+        return catalogVersion.getVersion() + "|" + category + "|" + search + "|" + after + "|" + role;
+    }
+    
+    private List<Book> searchBooks(String search) throws SQLException {
+        BookSearchIndex searchIndex = BookSearchIndex.getInstance();
+        if (!searchIndex.isReady()) {
+            return bookDAO.search(search);
+        }
+        return bookDAO.findByIds(searchIndex.search(search, SEARCH_LIMIT));
+    }
+    
+    private List<Book> findPage(HttpServletRequest request, int pageSize) throws SQLException {
+        int afterId = parseCursor(request.getParameter("after"));
+        List<Book> books = bookDAO.findPage(afterId, pageSize + 1, SortOrder.DESC);
+        if (books.size() > pageSize) {
+            books = books.subList(0, pageSize);
+            request.setAttribute("nextCursor", books.get(pageSize - 1).getId());
+        }
+        if (afterId > 0) {
+            request.setAttribute("pageCursor", afterId);
+        }
+        return books;
+    }
+    
+    private int parseCursor(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
     private Book extractBookFromRequest(HttpServletRequest request) {
         Book book = new Book();
         book.setTitle(request.getParameter("title"));
@@ -156,11 +296,4 @@ public class BookServlet extends HttpServlet {
         book.setImageUrl(request.getParameter("imageUrl"));
         return book;
     }
-    
-    @Override
-    public void destroy() {
-        if (bookDAO != null) {
-            bookDAO.closeConnection();
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package controller;
+
+import dao.BookDAO;
+import dao.CachingBookDAO;
+import model.Book;
+import model.CartItem;
+import model.ShoppingCart;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+@WebServlet("/cart/*")
+public class CartServlet extends HttpServlet {
+    public static final String CART_ATTRIBUTE = "cart";
+    
+    private BookDAO bookDAO;
+    
+    @Override
+    public void init() throws ServletException {
+        bookDAO = new CachingBookDAO();
+    }
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) 
+            throws ServletException, IOException {
+        try {
+            ShoppingCart cart = getCart(request.getSession());
+            request.setAttribute("cartItems", toCartItems(bookDAO, cart));
+            request.setAttribute("cartSubtotal", cart.getSubtotal());
+            request.getRequestDispatcher("/jsp/cart.jsp").forward(request, response);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            request.setAttribute("error", "Database error: " + e.getMessage());
+            request.getRequestDispatcher("/jsp/error.jsp").forward(request, response);
+        }
+    }
+    
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) 
+            throws ServletException, IOException {
+        String action = request.getParameter("action");
+        ShoppingCart cart = getCart(request.getSession());
+        
+        try {
+            if ("add".equals(action)) {
+                int bookId = Integer.parseInt(request.getParameter("bookId"));
+                Book book = bookDAO.findById(bookId);
+                if (book != null && book.isAvailable()) {
+                    cart.addItem(bookId, parseQuantity(request.getParameter("quantity"), 1), book.getPrice());
+                }
+            } else if ("update".equals(action)) {
+                int bookId = Integer.parseInt(request.getParameter("bookId"));
+                cart.updateQuantity(bookId, parseQuantity(request.getParameter("quantity"), 0));
+            } else if ("remove".equals(action)) {
+                cart.removeItem(Integer.parseInt(request.getParameter("bookId")));
+            } else if ("clear".equals(action)) {
+                cart.clear();
+            }
+            request.getSession().setAttribute(CART_ATTRIBUTE, cart);
+            response.sendRedirect(request.getContextPath() + "/cart");
+        } catch (SQLException e) {
+            e.printStackTrace();
+            request.setAttribute("error", "Database error: " + e.getMessage());
+            request.getRequestDispatcher("/jsp/error.jsp").forward(request, response);
+        }
+    }
+    
+    public static ShoppingCart getCart(HttpSession session) {
+        ShoppingCart cart = (ShoppingCart) session.getAttribute(CART_ATTRIBUTE);
+        if (cart == null) {
+            cart = new ShoppingCart();
+            session.setAttribute(CART_ATTRIBUTE, cart);
+        }
+        return cart;
+    }
+    
+    public static List<CartItem> toCartItems(BookDAO bookDAO, ShoppingCart cart) throws SQLException {
+        List<Integer> bookIds = new ArrayList<>();
+        for (int bookId : cart.getBookIds()) {
+            bookIds.add(bookId);
+        }
+        List<CartItem> items = new ArrayList<>(bookIds.size());
+        for (Book book : bookDAO.findByIds(bookIds)) {
+            CartItem item = new CartItem(book, cart.getQuantity(book.getId()));
+            item.setSnapshotPrice(cart.getUnitPrice(book.getId()));
+            items.add(item);
+        }
+        return items;
+    }
+    
+    private int parseQuantity(String value, int defaultValue) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
\ No newline at end of file
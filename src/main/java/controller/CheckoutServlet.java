@@ -0,0 +1,88 @@
+package controller;
+
+import dao.BookDAO;
+import dao.CachingBookDAO;
+import model.Customer;
+import model.ShoppingCart;
+import service.CheckoutResult;
+import service.CheckoutService;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.sql.SQLException;
+
+@WebServlet(urlPatterns = "/checkout/*", asyncSupported = true)
+public class CheckoutServlet extends AsyncHttpServlet {
+    private CheckoutService checkoutService;
+    private BookDAO bookDAO;
+    
+    @Override
+    public void init() throws ServletException {
+        checkoutService = new CheckoutService();
+        bookDAO = new CachingBookDAO();
+    }
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) 
+            throws ServletException, IOException {
+        ShoppingCart cart = CartServlet.getCart(request.getSession());
+        execute(request, response, () -> {
+            try {
+                showCheckout(request, response, cart);
+            } catch (SQLException e) {
+                e.printStackTrace();
+                request.setAttribute("error", "Database error: " + e.getMessage());
+                render(request, response, "/jsp/error.jsp");
+            }
+        });
+    }
+    
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) 
+            throws ServletException, IOException {
+        HttpSession session = request.getSession();
+        Customer customer = (Customer) session.getAttribute("customer");
+        if (customer == null) {
+            session.setAttribute("redirectURL", request.getContextPath() + "/checkout");
+            response.sendRedirect(request.getContextPath() + "/login");
+            return;
+        }
+        
+        ShoppingCart cart = CartServlet.getCart(session);
+        String shippingAddress = request.getParameter("shippingAddress");
+        String paymentMethod = request.getParameter("paymentMethod");
+        String notes = request.getParameter("notes");
+        
+        execute(request, response, () -> {
+            try {
+                CheckoutResult result = checkoutService.checkout(customer.getId(), cart,
+                        shippingAddress, paymentMethod, notes);
+                
+                if (result.isSuccess()) {
+                    cart.clear();
+                    session.setAttribute(CartServlet.CART_ATTRIBUTE, cart);
+                    response.sendRedirect(request.getContextPath() + "/orders?placed=" + result.getOrder().getId());
+                } else {
+                    request.setAttribute("error", result.getError());
+                    request.setAttribute("stockFailures", result.getStockFailures());
+                    showCheckout(request, response, cart);
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                request.setAttribute("error", "Database error: " + e.getMessage());
+                render(request, response, "/jsp/error.jsp");
+            }
+        });
+    }
+    
+    private void showCheckout(HttpServletRequest request, HttpServletResponse response, ShoppingCart cart) 
+            throws SQLException, ServletException, IOException {
+        request.setAttribute("cartItems", CartServlet.toCartItems(bookDAO, cart));
+        request.setAttribute("cartSubtotal", cart.getSubtotal());
+        render(request, response, "/jsp/checkout.jsp");
+    }
+}
\ No newline at end of file
@@ -1,24 +1,25 @@
 package controller;
 
-import dao.AccountDAO;
 import dao.CustomerDAO;
 import model.Account;
 import model.Customer;
+import service.LoginService;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.*;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.concurrent.RejectedExecutionException;
 
 @WebServlet("/login")
 public class LoginServlet extends HttpServlet {
-    private AccountDAO accountDAO;
+    private static final int RETRY_AFTER_SECONDS = 5;
+    
     private CustomerDAO customerDAO;
     
     @Override
     public void init() throws ServletException {
-        accountDAO = new AccountDAO();
         customerDAO = new CustomerDAO();
     }
     
@@ -36,7 +37,7 @@ public class LoginServlet extends HttpServlet {
         String remember = request.getParameter("remember");
         
         try {
-            Account account = accountDAO.authenticate(username, password);
+            Account account = LoginService.getInstance().authenticate(username, password);
             
             if (account != null) {
                 Customer customer = customerDAO.findById(account.getCustomerId());
@@ -68,20 +69,15 @@ public class LoginServlet extends HttpServlet {
                 request.setAttribute("error", "Invalid username or password");
                 request.getRequestDispatcher("/jsp/login.jsp").forward(request, response);
             }
+        } catch (RejectedExecutionException e) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+            request.setAttribute("error", "Too many login attempts right now, please try again in a few seconds");
+            request.getRequestDispatcher("/jsp/login.jsp").forward(request, response);
         } catch (SQLException e) {
             e.printStackTrace();
             request.setAttribute("error", "Database error: " + e.getMessage());
             request.getRequestDispatcher("/jsp/login.jsp").forward(request, response);
         }
     }
-    
-    @Override
-    public void destroy() {
-        if (accountDAO != null) {
-            accountDAO.closeConnection();
-        }
-        if (customerDAO != null) {
-            customerDAO.closeConnection();
-        }
-    }
 }
\ No newline at end of file
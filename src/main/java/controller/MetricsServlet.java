@@ -0,0 +1,35 @@
+package controller;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import metrics.MetricsRegistry;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@WebServlet("/admin/metrics")
+public class MetricsServlet extends HttpServlet {
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) 
+            throws ServletException, IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        gson.toJson(MetricsRegistry.getInstance().snapshot(), response.getWriter());
+    }
+    
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) 
+            throws ServletException, IOException {
+        if ("reset".equals(request.getParameter("action"))) {
+            MetricsRegistry.getInstance().reset();
+        }
+        response.sendRedirect(request.getContextPath() + "/admin/metrics");
+    }
+}
\ No newline at end of file
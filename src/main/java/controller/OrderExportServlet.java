@@ -0,0 +1,81 @@
+package controller;
+
+import service.OrderExporter;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+@WebServlet("/admin/orders/export")
+public class OrderExportServlet extends HttpServlet {
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        OrderExporter.Format format;
+        LocalDate from;
+        LocalDate to;
+        try {
+            format = OrderExporter.Format.parse(request.getParameter("format"));
+            from = parseDate(request.getParameter("from"));
+            to = parseDate(request.getParameter("to"));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    "Expected format=csv|jsonl and from/to dates as yyyy-mm-dd");
+            return;
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "from must not be after to");
+            return;
+        }
+        
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"" + fileName(from, to) + format.getExtension() + "\"");
+        
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+        try {
+            new OrderExporter().export(
+                    from != null ? Timestamp.valueOf(from.atStartOfDay()) : null,
+                    to != null ? Timestamp.valueOf(to.plusDays(1).atStartOfDay()) : null,
+                    format, out);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            if (response.isCommitted()) {
+                throw new ServletException("Order export failed after streaming had started", e);
+            }
+            response.reset();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Order export failed");
+        }
+    }
+    
+    private static LocalDate parseDate(String value) {
+        return value != null && !value.trim().isEmpty() ? LocalDate.parse(value.trim()) : null;
+    }
+    
+    private static String fileName(LocalDate from, LocalDate to) {
+        StringBuilder name = new StringBuilder("orders");
+        if (from != null) {
+            name.append('-').append(from);
+        }
+        if (to != null) {
+            name.append(from != null ? "-to-" : "-until-").append(to);
+        }
+        return name.toString();
+    }
+}
\ No newline at end of file
@@ -4,6 +4,8 @@ import dao.AccountDAO;
 import dao.CustomerDAO;
 import model.Account;
 import model.Customer;
+import service.LoginService;
+import util.TransactionManager;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -13,9 +15,12 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.concurrent.RejectedExecutionException;
 
 @WebServlet("/register")
 public class RegisterServlet extends HttpServlet {
+    private static final int RETRY_AFTER_SECONDS = 5;
+    
     private CustomerDAO customerDAO;
     private AccountDAO accountDAO;
     
@@ -71,42 +76,48 @@ public class RegisterServlet extends HttpServlet {
             }
             
             Customer customer = new Customer(name, email, phone);
-            if (customerDAO.insert(customer)) {
-                Account account = new Account(customer.getId(), username, password);
-                account.setRole("CUSTOMER");
-                
-                if (accountDAO.insert(account)) {
-                    HttpSession session = request.getSession();
-                    session.setAttribute("account", account);
-                    session.setAttribute("customer", customer);
-                    session.setAttribute("username", username);
-                    session.setAttribute("role", account.getRole());
-                    
-                    request.setAttribute("success", "Registration successful!");
-                    response.sendRedirect(request.getContextPath() + "/books");
-                } else {
-                    customerDAO.delete(customer.getId());
-                    request.setAttribute("error", "Failed to create account");
-                    request.getRequestDispatcher("/jsp/register.jsp").forward(request, response);
+            Account account = new Account(0, username, LoginService.getInstance().hashPassword(password));
+            account.setRole("CUSTOMER");
+            
+            String error = TransactionManager.execute(() -> {
+                if (!customerDAO.insert(customer)) {
+                    TransactionManager.setRollbackOnly();
+                    return "Failed to register customer";
+                }
+                account.setCustomerId(customer.getId());
+                if (!accountDAO.insert(account)) {
+                    TransactionManager.setRollbackOnly();
+                    return "Failed to create account";
                 }
+                return null;
+            });
+            
+            if (error == null) {
+                HttpSession session = request.getSession();
+                session.setAttribute("account", account);
+                session.setAttribute("customer", customer);
+                session.setAttribute("username", username);
+                session.setAttribute("role", account.getRole());
+                
+                request.setAttribute("success", "Registration successful!");
+                response.sendRedirect(request.getContextPath() + "/books");
             } else {
-                request.setAttribute("error", "Failed to register customer");
+                request.setAttribute("error", error);
                 request.getRequestDispatcher("/jsp/register.jsp").forward(request, response);
             }
+        } catch (RejectedExecutionException e) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+            request.setAttribute("error", "Too many registrations right now, please try again in a few seconds");
+            request.setAttribute("name", name);
+            request.setAttribute("email", email);
+            request.setAttribute("phone", phone);
+            request.setAttribute("username", username);
+            request.getRequestDispatcher("/jsp/register.jsp").forward(request, response);
         } catch (SQLException e) {
             e.printStackTrace();
             request.setAttribute("error", "Database error: " + e.getMessage());
             request.getRequestDispatcher("/jsp/register.jsp").forward(request, response);
         }
     }
-    
-    @Override
-    public void destroy() {
-        if (customerDAO != null) {
-            customerDAO.closeConnection();
-        }
-        if (accountDAO != null) {
-            accountDAO.closeConnection();
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package controller;
+
+import com.google.gson.stream.JsonWriter;
+import service.SuggestionIndex;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@WebServlet("/books/suggest")
+public class SuggestServlet extends HttpServlet {
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_QUERY_LENGTH = 100;
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) 
+            throws ServletException, IOException {
+        String query = request.getParameter("q");
+        int limit = parseLimit(request.getParameter("limit"));
+        
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "public, max-age=60");
+        
+        JsonWriter writer = new JsonWriter(response.getWriter());
+        writer.beginArray();
+        if (query != null) {
+            query = query.trim();
+            if (!query.isEmpty() && query.length() <= MAX_QUERY_LENGTH) {
+                SuggestionIndex.getInstance().suggest(query, limit, (type, value, bookId) -> {
+                    writer.beginObject();
+                    writer.name("type").value(type);
+                    writer.name("value").value(value);
+                    writer.name("bookId").value(bookId);
+                    writer.endObject();
+                });
+            }
+        }
+        writer.endArray();
+        writer.flush();
+    }
+    
+    private int parseLimit(String value) {
+        if (value == null) {
+            return DEFAULT_LIMIT;
+        }
+        try {
+            return Math.max(1, Math.min(SuggestionIndex.MAX_LIMIT, Integer.parseInt(value.trim())));
+        } catch (NumberFormatException e) {
+            return DEFAULT_LIMIT;
+        }
+    }
+}
\ No newline at end of file
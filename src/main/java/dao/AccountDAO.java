@@ -1,12 +1,14 @@
 package dao;
 
 import model.Account;
-import util.PasswordUtil;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class AccountDAO extends BaseDAO<Account> {
+    private static final String COLUMNS = "id, customer_id, username, password, role, is_active, created_date, last_login";
+    private static final RowMapperCache<Account> MAPPERS = new RowMapperCache<>(AccountDAO::accountMapper);
     
     public AccountDAO() {
         super();
@@ -18,90 +20,95 @@ public class AccountDAO extends BaseDAO<Account> {
     
     @Override
     public Account findById(int id) throws SQLException {
-        String sql = "SELECT * FROM accounts WHERE id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM accounts WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, id);
             rs = ps.executeQuery();
             
             if (rs.next()) {
-                return extractAccountFromResultSet(rs);
+                return rowMapper(sql, rs).map(rs);
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return null;
     }
     
     public Account findByUsername(String username) throws SQLException {
-        String sql = "SELECT * FROM accounts WHERE username = ?";
+        String sql = "SELECT " + COLUMNS + " FROM accounts WHERE username = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setString(1, username);
             rs = ps.executeQuery();
             
             if (rs.next()) {
-                return extractAccountFromResultSet(rs);
+                return rowMapper(sql, rs).map(rs);
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return null;
     }
     
     public Account findByCustomerId(int customerId) throws SQLException {
-        String sql = "SELECT * FROM accounts WHERE customer_id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM accounts WHERE customer_id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, customerId);
             rs = ps.executeQuery();
             
             if (rs.next()) {
-                return extractAccountFromResultSet(rs);
+                return rowMapper(sql, rs).map(rs);
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return null;
     }
     
-    public Account authenticate(String username, String password) throws SQLException {
-        Account account = findByUsername(username);
-        if (account != null && account.isActive()) {
-            if (account.getPassword().equals(password) || 
-                PasswordUtil.verifyPassword(password, account.getPassword())) {
-                updateLastLogin(account.getId());
-                return account;
-            }
+    public void completeLogin(Account account, String passwordHash) throws SQLException {
+        if (passwordHash != null && !passwordHash.equals(account.getPassword())) {
+            updatePasswordHash(account.getId(), passwordHash);
+            account.setPassword(passwordHash);
         }
-        return null;
+        account.setLastLogin(LastLoginWriter.getInstance().record(account.getId()));
     }
     
     @Override
     public List<Account> findAll() throws SQLException {
         List<Account> accounts = new ArrayList<>();
-        String sql = "SELECT * FROM accounts ORDER BY id DESC";
+        String sql = "SELECT " + COLUMNS + " FROM accounts ORDER BY id DESC";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             rs = ps.executeQuery();
             
+            RowMapper<Account> mapper = rowMapper(sql, rs);
             while (rs.next()) {
-                accounts.add(extractAccountFromResultSet(rs));
+                accounts.add(mapper.map(rs));
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return accounts;
     }
@@ -109,13 +116,15 @@ public class AccountDAO extends BaseDAO<Account> {
     @Override
     public boolean insert(Account account) throws SQLException {
         String sql = "INSERT INTO accounts (customer_id, username, password, role, is_active) VALUES (?, ?, ?, ?, ?)";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
             ps.setInt(1, account.getCustomerId());
             ps.setString(2, account.getUsername());
-            ps.setString(3, PasswordUtil.hashPassword(account.getPassword()));
+            ps.setString(3, account.getPassword());
             ps.setString(4, account.getRole());
             ps.setBoolean(5, account.isActive());
             
@@ -129,7 +138,7 @@ public class AccountDAO extends BaseDAO<Account> {
                 return true;
             }
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
         return false;
     }
@@ -137,10 +146,12 @@ public class AccountDAO extends BaseDAO<Account> {
     @Override
     public boolean update(Account account) throws SQLException {
         String sql = "UPDATE accounts SET username = ?, role = ?, is_active = ? WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setString(1, account.getUsername());
             ps.setString(2, account.getRole());
             ps.setBoolean(3, account.isActive());
@@ -148,60 +159,100 @@ public class AccountDAO extends BaseDAO<Account> {
             
             return ps.executeUpdate() > 0;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
     }
     
-    public boolean updatePassword(int accountId, String newPassword) throws SQLException {
+    public boolean updatePasswordHash(int accountId, String passwordHash) throws SQLException {
         String sql = "UPDATE accounts SET password = ? WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
-            ps.setString(1, PasswordUtil.hashPassword(newPassword));
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
+            ps.setString(1, passwordHash);
             ps.setInt(2, accountId);
             
             return ps.executeUpdate() > 0;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
     }
     
     public boolean updateLastLogin(int accountId) throws SQLException {
         String sql = "UPDATE accounts SET last_login = CURRENT_TIMESTAMP WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, accountId);
             
             return ps.executeUpdate() > 0;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
+        }
+    }
+    
+    public int updateLastLogins(Map<Integer, Timestamp> lastLogins) throws SQLException {
+        if (lastLogins.isEmpty()) {
+            return 0;
+        }
+        StringBuilder caseLogin = new StringBuilder("CASE id");
+        for (int i = 0; i < lastLogins.size(); i++) {
+            caseLogin.append(" WHEN ? THEN ?");
+        }
+        caseLogin.append(" END");
+        String sql = "UPDATE accounts SET last_login = " + caseLogin +
+                     " WHERE id IN (" + placeholders(lastLogins.size()) + ")";
+        Connection conn = null;
+        PreparedStatement ps = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
+            int index = 1;
+            for (Map.Entry<Integer, Timestamp> login : lastLogins.entrySet()) {
+                ps.setInt(index++, login.getKey());
+                ps.setTimestamp(index++, login.getValue());
+            }
+            for (Integer id : lastLogins.keySet()) {
+                ps.setInt(index++, id);
+            }
+            
+            return ps.executeUpdate();
+        } finally {
+            closeResources(ps, conn);
         }
     }
     
     @Override
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM accounts WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, id);
             return ps.executeUpdate() > 0;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
     }
     
     public boolean isUsernameExists(String username) throws SQLException {
         String sql = "SELECT COUNT(*) FROM accounts WHERE username = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setString(1, username);
             rs = ps.executeQuery();
             
@@ -209,21 +260,44 @@ public class AccountDAO extends BaseDAO<Account> {
                 return rs.getInt(1) > 0;
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return false;
     }
     
-    private Account extractAccountFromResultSet(ResultSet rs) throws SQLException {
-        return new Account(
-            rs.getInt("id"),
-            rs.getInt("customer_id"),
-            rs.getString("username"),
-            rs.getString("password"),
-            rs.getString("role"),
-            rs.getBoolean("is_active"),
-            rs.getTimestamp("created_date"),
-            rs.getTimestamp("last_login")
+    @Override
+    protected String getTableName() {
+        return "accounts";
+    }
+    
+    @Override
+    protected String getColumns() {
+        return COLUMNS;
+    }
+    
+    @Override
+    protected RowMapper<Account> rowMapper(String sql, ResultSet rs) throws SQLException {
+        return MAPPERS.get(sql, rs);
+    }
+    
+    private static RowMapper<Account> accountMapper(ResultColumns columns) {
+        int id = columns.indexOf("id");
+        int customerId = columns.indexOf("customer_id");
+        int username = columns.indexOf("username");
+        int password = columns.indexOf("password");
+        int role = columns.indexOf("role");
+        int active = columns.indexOf("is_active");
+        int createdDate = columns.indexOf("created_date");
+        int lastLogin = columns.indexOf("last_login");
+        return rs -> new Account(
+            rs.getInt(id),
+            ResultColumns.getInt(rs, customerId),
+            ResultColumns.getString(rs, username),
+            ResultColumns.getString(rs, password),
+            ResultColumns.getString(rs, role),
+            ResultColumns.getBoolean(rs, active),
+            ResultColumns.getTimestamp(rs, createdDate),
+            ResultColumns.getTimestamp(rs, lastLogin)
         );
     }
 }
\ No newline at end of file
@@ -4,18 +4,21 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import util.DBConnection;
+import util.TransactionManager;
 
 public abstract class BaseDAO<T> {
+    private static final Logger logger = LoggerFactory.getLogger(BaseDAO.class);
+    
+    protected static final int STREAM_FETCH_SIZE = 500;
+    
     protected Connection connection;
     
     public BaseDAO() {
-        try {
-            this.connection = DBConnection.createConnection();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
     }
     
     public BaseDAO(Connection connection) {
@@ -28,19 +31,111 @@ public abstract class BaseDAO<T> {
     public abstract boolean update(T entity) throws SQLException;
     public abstract boolean delete(int id) throws SQLException;
     
+    protected abstract String getTableName();
+    protected abstract String getColumns();
+    protected abstract RowMapper<T> rowMapper(String sql, ResultSet rs) throws SQLException;
+    
+    protected String getListColumns() {
+        return getColumns();
+    }
+    
+    public List<T> findPage(int afterId, int limit, SortOrder sort) throws SQLException {
+        List<T> page = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(getListColumns()).append(" FROM ").append(getTableName());
+        if (afterId > 0) {
+            sql.append(sort == SortOrder.DESC ? " WHERE id < ?" : " WHERE id > ?");
+        }
+        sql.append(" ORDER BY id ").append(sort.name()).append(" LIMIT ?");
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(sql.toString());
+            int index = 1;
+            if (afterId > 0) {
+                ps.setInt(index++, afterId);
+            }
+            ps.setInt(index, limit);
+            rs = ps.executeQuery();
+            
+            RowMapper<T> mapper = rowMapper(sql.toString(), rs);
+            while (rs.next()) {
+                page.add(mapper.map(rs));
+            }
+        } finally {
+            closeResources(rs, ps, conn);
+        }
+        return page;
+    }
+    
+    public void forEach(RowCallback<T> callback) throws SQLException {
+        String sql = "SELECT " + getColumns() + " FROM " + getTableName() + " ORDER BY id";
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            rs = ps.executeQuery();
+            
+            RowMapper<T> mapper = rowMapper(sql, rs);
+            while (rs.next()) {
+                callback.process(mapper.map(rs));
+            }
+        } finally {
+            closeResources(rs, ps, conn);
+        }
+    }
+    
+    protected Connection getConnection() throws SQLException {
+        if (connection != null) {
+            return connection;
+        }
+        Connection txConnection = TransactionManager.currentConnection();
+        if (txConnection != null) {
+            return txConnection;
+        }
+        return DBConnection.createConnection();
+    }
+    
+    protected Connection getReadConnection() throws SQLException {
+        if (connection != null) {
+            return connection;
+        }
+        Connection txConnection = TransactionManager.currentConnection();
+        if (txConnection != null) {
+            return txConnection;
+        }
+        return DBConnection.createReadConnection();
+    }
+    
+    protected void releaseConnection(Connection conn) {
+        if (conn != null && conn != connection && conn != TransactionManager.currentConnection()) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                logger.warn("Failed to release connection", e);
+            }
+        }
+    }
+    
     protected void closeResources(ResultSet rs, PreparedStatement ps) {
         if (rs != null) {
             try {
                 rs.close();
             } catch (SQLException e) {
-                e.printStackTrace();
+                logger.warn("Failed to close result set", e);
             }
         }
         if (ps != null) {
             try {
                 ps.close();
             } catch (SQLException e) {
-                e.printStackTrace();
+                logger.warn("Failed to close statement", e);
             }
         }
     }
@@ -50,11 +145,29 @@ public abstract class BaseDAO<T> {
             try {
                 ps.close();
             } catch (SQLException e) {
-                e.printStackTrace();
+                logger.warn("Failed to close statement", e);
             }
         }
     }
     
+    protected void closeResources(ResultSet rs, PreparedStatement ps, Connection conn) {
+        closeResources(rs, ps);
+        releaseConnection(conn);
+    }
+    
+    protected void closeResources(PreparedStatement ps, Connection conn) {
+        closeResources(ps);
+        releaseConnection(conn);
+    }
+    
+    protected static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(i > 0 ? ", ?" : "?");
+        }
+        return sb.toString();
+    }
+    
     public void closeConnection() {
         if (connection != null) {
             try {
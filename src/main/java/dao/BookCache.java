@@ -0,0 +1,104 @@
+package dao;
+
+import model.Book;
+import util.LruCache;
+
+import java.util.List;
+import java.util.Properties;
+
+public class BookCache implements CatalogListener {
+    public static final String MAX_ENTRIES_KEY = "catalogCacheMaxEntries";
+    public static final String TTL_SECONDS_KEY = "catalogCacheTtlSeconds";
+    
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+    private static final int DEFAULT_TTL_SECONDS = 300;
+    private static final int MAX_LIST_ENTRIES = 512;
+    
+    private static volatile BookCache instance;
+    
+    private final LruCache<Integer, Book> booksById;
+    private final LruCache<String, Integer> idsByIsbn;
+    private final LruCache<String, List<Book>> bookLists;
+    private final LruCache<String, List<String>> categoryLists;
+    
+    private BookCache(int maxEntries, long ttlMillis) {
+        this.booksById = new LruCache<>(maxEntries, ttlMillis);
+        this.idsByIsbn = new LruCache<>(maxEntries, ttlMillis);
+        this.bookLists = new LruCache<>(Math.min(maxEntries, MAX_LIST_ENTRIES), ttlMillis);
+        this.categoryLists = new LruCache<>(1, ttlMillis);
+    }
+    
+    public static synchronized void configure(Properties props) {
+        BookCache previous = instance;
+        int maxEntries = getInt(props, MAX_ENTRIES_KEY, DEFAULT_MAX_ENTRIES);
+        int ttlSeconds = getInt(props, TTL_SECONDS_KEY, DEFAULT_TTL_SECONDS);
+        instance = new BookCache(maxEntries, ttlSeconds * 1000L);
+        BookDAO.addCatalogListener(instance);
+        if (previous != null) {
+            BookDAO.removeCatalogListener(previous);
+        }
+    }
+    
+    public static BookCache getInstance() {
+        BookCache cache = instance;
+        if (cache == null) {
+            synchronized (BookCache.class) {
+                if (instance == null) {
+                    configure(new Properties());
+                }
+                cache = instance;
+            }
+        }
+        return cache;
+    }
+    
+    @Override
+    public void bookChanged(int bookId) {
+        if (bookId == ALL_BOOKS) {
+            booksById.clear();
+            idsByIsbn.clear();
+        } else {
+            booksById.remove(bookId);
+        }
+        bookLists.clear();
+        categoryLists.clear();
+    }
+    
+    LruCache<Integer, Book> booksById() {
+        return booksById;
+    }
+    
+    LruCache<String, Integer> idsByIsbn() {
+        return idsByIsbn;
+    }
+    
+    LruCache<String, List<Book>> bookLists() {
+        return bookLists;
+    }
+    
+    LruCache<String, List<String>> categoryLists() {
+        return categoryLists;
+    }
+    
+    public long getHitCount() {
+        return booksById.getHitCount() + idsByIsbn.getHitCount() + bookLists.getHitCount() + categoryLists.getHitCount();
+    }
+    
+    public long getMissCount() {
+        return booksById.getMissCount() + idsByIsbn.getMissCount() + bookLists.getMissCount() + categoryLists.getMissCount();
+    }
+    
+    public long getEvictionCount() {
+        return booksById.getEvictionCount() + idsByIsbn.getEvictionCount() + bookLists.getEvictionCount()
+                + categoryLists.getEvictionCount();
+    }
+    
+    public int size() {
+        return booksById.size() + bookLists.size();
+    }
+    
+    private static int getInt(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        return value != null && !value.trim().isEmpty() ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+}
\ No newline at end of file
@@ -1,12 +1,25 @@
 package dao;
 
 import model.Book;
+import util.TransactionManager;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class BookDAO extends BaseDAO<Book> {
+    static final String COLUMNS = "id, title, author, isbn, price, quantity, category, description, image_url, " +
+                                  "published_date, created_date";
+    static final String LIST_COLUMNS = "id, title, author, isbn, price, quantity, category, " +
+                                       "LEFT(description, 101) AS description, image_url";
+    private static final String STOCK_COLUMNS = "id, title, price, quantity";
+    private static final int INVENTORY_BATCH_SIZE = 500;
+    private static final RowMapperCache<Book> MAPPERS = new RowMapperCache<>(BookDAO::bookMapper);
+    private static final List<CatalogListener> catalogListeners = new CopyOnWriteArrayList<>();
     
     public BookDAO() {
         super();
@@ -18,39 +31,43 @@ public class BookDAO extends BaseDAO<Book> {
     
     @Override
     public Book findById(int id) throws SQLException {
-        String sql = "SELECT * FROM books WHERE id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM books WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, id);
             rs = ps.executeQuery();
             
             if (rs.next()) {
-                return extractBookFromResultSet(rs);
+                return rowMapper(sql, rs).map(rs);
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return null;
     }
     
     public Book findByIsbn(String isbn) throws SQLException {
-        String sql = "SELECT * FROM books WHERE isbn = ?";
+        String sql = "SELECT " + COLUMNS + " FROM books WHERE isbn = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setString(1, isbn);
             rs = ps.executeQuery();
             
             if (rs.next()) {
-                return extractBookFromResultSet(rs);
+                return rowMapper(sql, rs).map(rs);
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return null;
     }
@@ -58,51 +75,60 @@ public class BookDAO extends BaseDAO<Book> {
     @Override
     public List<Book> findAll() throws SQLException {
         List<Book> books = new ArrayList<>();
-        String sql = "SELECT * FROM books ORDER BY id DESC";
+        String sql = "SELECT " + COLUMNS + " FROM books ORDER BY id DESC";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getReadConnection();
+            ps = conn.prepareStatement(sql);
             rs = ps.executeQuery();
             
+            RowMapper<Book> mapper = rowMapper(sql, rs);
             while (rs.next()) {
-                books.add(extractBookFromResultSet(rs));
+                books.add(mapper.map(rs));
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return books;
     }
     
     public List<Book> findByCategory(String category) throws SQLException {
         List<Book> books = new ArrayList<>();
-        String sql = "SELECT * FROM books WHERE category = ? ORDER BY title";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM books WHERE category = ? ORDER BY title";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getReadConnection();
+            ps = conn.prepareStatement(sql);
             ps.setString(1, category);
             rs = ps.executeQuery();
             
+            RowMapper<Book> mapper = rowMapper(sql, rs);
             while (rs.next()) {
-                books.add(extractBookFromResultSet(rs));
+                books.add(mapper.map(rs));
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return books;
     }
     
     public List<Book> search(String keyword) throws SQLException {
         List<Book> books = new ArrayList<>();
-        String sql = "SELECT * FROM books WHERE title LIKE ? OR author LIKE ? OR isbn LIKE ? OR category LIKE ?";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM books " +
+                     "WHERE title LIKE ? OR author LIKE ? OR isbn LIKE ? OR category LIKE ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getReadConnection();
+            ps = conn.prepareStatement(sql);
             String searchPattern = "%" + keyword + "%";
             ps.setString(1, searchPattern);
             ps.setString(2, searchPattern);
@@ -110,30 +136,71 @@ public class BookDAO extends BaseDAO<Book> {
             ps.setString(4, searchPattern);
             rs = ps.executeQuery();
             
+            RowMapper<Book> mapper = rowMapper(sql, rs);
             while (rs.next()) {
-                books.add(extractBookFromResultSet(rs));
+                books.add(mapper.map(rs));
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
+        }
+        return books;
+    }
+    
+    public List<Book> findByIds(List<Integer> ids) throws SQLException {
+        List<Book> books = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return books;
+        }
+        String sql = "SELECT " + COLUMNS + " FROM books WHERE id IN (" + placeholders(ids.size()) + ")";
+        Map<Integer, Book> booksById = new HashMap<>();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setInt(i + 1, ids.get(i));
+            }
+            rs = ps.executeQuery();
+            
+            RowMapper<Book> mapper = rowMapper(sql, rs);
+            while (rs.next()) {
+                Book book = mapper.map(rs);
+                booksById.put(book.getId(), book);
+            }
+        } finally {
+            closeResources(rs, ps, conn);
+        }
+        
+        for (Integer id : ids) {
+            Book book = booksById.get(id);
+            if (book != null) {
+                books.add(book);
+            }
         }
         return books;
     }
     
     public List<Book> findAvailableBooks() throws SQLException {
         List<Book> books = new ArrayList<>();
-        String sql = "SELECT * FROM books WHERE quantity > 0 ORDER BY title";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM books WHERE quantity > 0 ORDER BY title";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             rs = ps.executeQuery();
             
+            RowMapper<Book> mapper = rowMapper(sql, rs);
             while (rs.next()) {
-                books.add(extractBookFromResultSet(rs));
+                books.add(mapper.map(rs));
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return books;
     }
@@ -142,10 +209,12 @@ public class BookDAO extends BaseDAO<Book> {
     public boolean insert(Book book) throws SQLException {
         String sql = "INSERT INTO books (title, author, isbn, price, quantity, category, description, image_url, published_date) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
             ps.setString(1, book.getTitle());
             ps.setString(2, book.getAuthor());
             ps.setString(3, book.getIsbn());
@@ -163,22 +232,65 @@ public class BookDAO extends BaseDAO<Book> {
                 if (generatedKeys.next()) {
                     book.setId(generatedKeys.getInt(1));
                 }
+                fireBookChanged(book.getId());
                 return true;
             }
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
         return false;
     }
     
+    public int upsertByIsbn(List<Book> books) throws SQLException {
+        if (books.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO books (title, author, isbn, price, quantity, category, " +
+                "description, image_url, published_date) VALUES ");
+        for (int i = 0; i < books.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append("(?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+        sql.append(" ON DUPLICATE KEY UPDATE title = VALUES(title), author = VALUES(author), price = VALUES(price), " +
+                   "quantity = VALUES(quantity), category = VALUES(category), description = VALUES(description), " +
+                   "image_url = VALUES(image_url), published_date = VALUES(published_date)");
+        Connection conn = null;
+        PreparedStatement ps = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(sql.toString());
+            int index = 1;
+            for (Book book : books) {
+                ps.setString(index++, book.getTitle());
+                ps.setString(index++, book.getAuthor());
+                ps.setString(index++, book.getIsbn());
+                ps.setBigDecimal(index++, book.getPrice());
+                ps.setInt(index++, book.getQuantity());
+                ps.setString(index++, book.getCategory());
+                ps.setString(index++, book.getDescription());
+                ps.setString(index++, book.getImageUrl());
+                ps.setDate(index++, book.getPublishedDate());
+            }
+            return ps.executeUpdate();
+        } finally {
+            closeResources(ps, conn);
+        }
+    }
+    
+    public void fireCatalogChanged() {
+        fireBookChanged(CatalogListener.ALL_BOOKS);
+    }
+    
     @Override
     public boolean update(Book book) throws SQLException {
         String sql = "UPDATE books SET title = ?, author = ?, isbn = ?, price = ?, quantity = ?, " +
                      "category = ?, description = ?, image_url = ?, published_date = ? WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setString(1, book.getTitle());
             ps.setString(2, book.getAuthor());
             ps.setString(3, book.getIsbn());
@@ -190,38 +302,230 @@ public class BookDAO extends BaseDAO<Book> {
             ps.setDate(9, book.getPublishedDate());
             ps.setInt(10, book.getId());
             
-            return ps.executeUpdate() > 0;
+            boolean updated = ps.executeUpdate() > 0;
+            if (updated) {
+                fireBookChanged(book.getId());
+            }
+            return updated;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
     }
     
     public boolean updateQuantity(int bookId, int quantity) throws SQLException {
         String sql = "UPDATE books SET quantity = ? WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, quantity);
             ps.setInt(2, bookId);
             
-            return ps.executeUpdate() > 0;
+            boolean updated = ps.executeUpdate() > 0;
+            if (updated) {
+                fireBookChanged(bookId);
+            }
+            return updated;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
     }
     
     public boolean decreaseQuantity(int bookId, int amount) throws SQLException {
         String sql = "UPDATE books SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, amount);
             ps.setInt(2, bookId);
             ps.setInt(3, amount);
             
-            return ps.executeUpdate() > 0;
+            boolean updated = ps.executeUpdate() > 0;
+            if (updated) {
+                fireBookChanged(bookId);
+            }
+            return updated;
+        } finally {
+            closeResources(ps, conn);
+        }
+    }
+    
+    public Map<Integer, Book> lockForUpdate(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Book> books = new HashMap<>();
+        if (ids.isEmpty()) {
+            return books;
+        }
+        String sql = "SELECT " + STOCK_COLUMNS + " FROM books WHERE id IN (" + placeholders(ids.size()) +
+                     ") ORDER BY id FOR UPDATE";
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
+            int index = 1;
+            for (Integer id : ids) {
+                ps.setInt(index++, id);
+            }
+            rs = ps.executeQuery();
+            
+            RowMapper<Book> mapper = rowMapper(sql, rs);
+            while (rs.next()) {
+                Book book = mapper.map(rs);
+                books.put(book.getId(), book);
+            }
+        } finally {
+            closeResources(rs, ps, conn);
+        }
+        return books;
+    }
+    
+    public boolean decreaseQuantities(Map<Integer, Integer> amounts) throws SQLException {
+        if (amounts.isEmpty()) {
+            return true;
+        }
+        StringBuilder caseAmount = new StringBuilder("CASE id");
+        for (int i = 0; i < amounts.size(); i++) {
+            caseAmount.append(" WHEN ? THEN ?");
+        }
+        caseAmount.append(" END");
+        String sql = "UPDATE books SET quantity = quantity - " + caseAmount +
+                     " WHERE id IN (" + placeholders(amounts.size()) + ") AND quantity >= " + caseAmount;
+        Connection conn = null;
+        PreparedStatement ps = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
+            int index = 1;
+            for (Map.Entry<Integer, Integer> amount : amounts.entrySet()) {
+                ps.setInt(index++, amount.getKey());
+                ps.setInt(index++, amount.getValue());
+            }
+            for (Integer id : amounts.keySet()) {
+                ps.setInt(index++, id);
+            }
+            for (Map.Entry<Integer, Integer> amount : amounts.entrySet()) {
+                ps.setInt(index++, amount.getKey());
+                ps.setInt(index++, amount.getValue());
+            }
+            
+            boolean updated = ps.executeUpdate() == amounts.size();
+            if (updated) {
+                for (Integer id : amounts.keySet()) {
+                    fireBookChanged(id);
+                }
+            }
+            return updated;
+        } finally {
+            closeResources(ps, conn);
+        }
+    }
+    
+    public Map<Integer, Integer> findQuantities(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Integer> quantities = new HashMap<>();
+        if (ids.isEmpty()) {
+            return quantities;
+        }
+        String sql = "SELECT id, quantity FROM books WHERE id IN (" + placeholders(ids.size()) + ")";
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
+            int index = 1;
+            for (Integer id : ids) {
+                ps.setInt(index++, id);
+            }
+            rs = ps.executeQuery();
+            
+            while (rs.next()) {
+                quantities.put(rs.getInt(1), rs.getInt(2));
+            }
+        } finally {
+            closeResources(rs, ps, conn);
+        }
+        return quantities;
+    }
+    
+    public long getInventoryCheckpoint() throws SQLException {
+        String sql = "SELECT journal_seq FROM inventory_checkpoint WHERE id = 1";
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
+            rs = ps.executeQuery();
+            return rs.next() ? rs.getLong(1) : 0;
+        } finally {
+            closeResources(rs, ps, conn);
+        }
+    }
+    
+    public void applyInventoryDeltas(Map<Integer, Integer> deltas, long journalSeq) throws SQLException {
+        TransactionManager.execute(() -> {
+            Connection conn = getConnection();
+            List<Map.Entry<Integer, Integer>> changes = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> delta : deltas.entrySet()) {
+                if (delta.getValue() != 0) {
+                    changes.add(delta);
+                }
+            }
+            for (int from = 0; from < changes.size(); from += INVENTORY_BATCH_SIZE) {
+                addQuantities(conn, changes.subList(from, Math.min(from + INVENTORY_BATCH_SIZE, changes.size())));
+            }
+            
+            PreparedStatement ps = null;
+            try {
+                ps = conn.prepareStatement("UPDATE inventory_checkpoint SET journal_seq = ? WHERE id = 1");
+                ps.setLong(1, journalSeq);
+                if (ps.executeUpdate() == 0) {
+                    closeResources(ps);
+                    ps = conn.prepareStatement("INSERT INTO inventory_checkpoint (id, journal_seq) VALUES (1, ?)");
+                    ps.setLong(1, journalSeq);
+                    ps.executeUpdate();
+                }
+            } finally {
+                closeResources(ps);
+            }
+            for (Map.Entry<Integer, Integer> change : changes) {
+                fireBookChanged(change.getKey());
+            }
+            return null;
+        });
+    }
+    
+    private void addQuantities(Connection conn, List<Map.Entry<Integer, Integer>> deltas) throws SQLException {
+        StringBuilder caseDelta = new StringBuilder("CASE id");
+        for (int i = 0; i < deltas.size(); i++) {
+            caseDelta.append(" WHEN ? THEN ?");
+        }
+        caseDelta.append(" END");
+        String sql = "UPDATE books SET quantity = quantity + " + caseDelta +
+                     " WHERE id IN (" + placeholders(deltas.size()) + ")";
+        PreparedStatement ps = null;
+        
+        try {
+            ps = conn.prepareStatement(sql);
+            int index = 1;
+            for (Map.Entry<Integer, Integer> delta : deltas) {
+                ps.setInt(index++, delta.getKey());
+                ps.setInt(index++, delta.getValue());
+            }
+            for (Map.Entry<Integer, Integer> delta : deltas) {
+                ps.setInt(index++, delta.getKey());
+            }
+            ps.executeUpdate();
         } finally {
             closeResources(ps);
         }
@@ -230,49 +534,111 @@ public class BookDAO extends BaseDAO<Book> {
     @Override
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM books WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+            boolean updated = ps.executeUpdate() > 0;
+            if (updated) {
+                fireBookChanged(id);
+            }
+            return updated;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
     }
     
     public List<String> getAllCategories() throws SQLException {
         List<String> categories = new ArrayList<>();
         String sql = "SELECT DISTINCT category FROM books ORDER BY category";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             rs = ps.executeQuery();
             
             while (rs.next()) {
                 categories.add(rs.getString("category"));
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return categories;
     }
     
-    private Book extractBookFromResultSet(ResultSet rs) throws SQLException {
-        return new Book(
-            rs.getInt("id"),
-            rs.getString("title"),
-            rs.getString("author"),
-            rs.getString("isbn"),
-            rs.getBigDecimal("price"),
-            rs.getInt("quantity"),
-            rs.getString("category"),
-            rs.getString("description"),
-            rs.getString("image_url"),
-            rs.getDate("published_date"),
-            rs.getTimestamp("created_date")
+    public static void addCatalogListener(CatalogListener listener) {
+        catalogListeners.add(listener);
+    }
+    
+    public static void removeCatalogListener(CatalogListener listener) {
+        catalogListeners.remove(listener);
+    }
+    
+    protected void fireBookChanged(int bookId) {
+        if (catalogListeners.isEmpty()) {
+            return;
+        }
+        TransactionManager.afterCommit(() -> {
+            for (CatalogListener listener : catalogListeners) {
+                try {
+                    listener.bookChanged(bookId);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+    
+    @Override
+    protected String getTableName() {
+        return "books";
+    }
+    
+    @Override
+    protected String getColumns() {
+        return COLUMNS;
+    }
+    
+    @Override
+    protected String getListColumns() {
+        return LIST_COLUMNS;
+    }
+    
+    @Override
+    protected RowMapper<Book> rowMapper(String sql, ResultSet rs) throws SQLException {
+        return MAPPERS.get(sql, rs);
+    }
+    
+    private static RowMapper<Book> bookMapper(ResultColumns columns) {
+        int id = columns.indexOf("id");
+        int title = columns.indexOf("title");
+        int author = columns.indexOf("author");
+        int isbn = columns.indexOf("isbn");
+        int price = columns.indexOf("price");
+        int quantity = columns.indexOf("quantity");
+        int category = columns.indexOf("category");
+        int description = columns.indexOf("description");
+        int imageUrl = columns.indexOf("image_url");
+        int publishedDate = columns.indexOf("published_date");
+        int createdDate = columns.indexOf("created_date");
+        return rs -> new Book(
+            rs.getInt(id),
+            ResultColumns.getString(rs, title),
+            ResultColumns.getString(rs, author),
+            ResultColumns.getString(rs, isbn),
+            ResultColumns.getBigDecimal(rs, price),
+            ResultColumns.getInt(rs, quantity),
+            ResultColumns.getString(rs, category),
+            ResultColumns.getString(rs, description),
+            ResultColumns.getString(rs, imageUrl),
+            ResultColumns.getDate(rs, publishedDate),
+            ResultColumns.getTimestamp(rs, createdDate)
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package dao;
+
+import model.Book;
+import util.LruCache;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CachingBookDAO extends BookDAO {
+    private static final String CATEGORIES_KEY = "categories";
+    
+    public CachingBookDAO() {
+        super();
+    }
+    
+    public CachingBookDAO(Connection connection) {
+        super(connection);
+    }
+    
+    @Override
+    protected Connection getReadConnection() throws SQLException {
+        return getConnection();
+    }
+    
+    @Override
+    public Book findById(int id) throws SQLException {
+        LruCache<Integer, Book> cache = BookCache.getInstance().booksById();
+        Book book = cache.get(id);
+        if (book != null) {
+            return book.copy();
+        }
+        long version = cache.version();
+        book = super.findById(id);
+        if (book != null) {
+            cache.put(id, book.copy(), version);
+        }
+        return book;
+    }
+    
+    @Override
+    public Book findByIsbn(String isbn) throws SQLException {
+        BookCache bookCache = BookCache.getInstance();
+        Integer id = bookCache.idsByIsbn().get(isbn);
+        if (id != null) {
+            Book book = findById(id);
+            if (book != null && isbn.equals(book.getIsbn())) {
+                return book;
+            }
+            bookCache.idsByIsbn().remove(isbn);
+        }
+        
+        long version = bookCache.booksById().version();
+        Book book = super.findByIsbn(isbn);
+        if (book != null) {
+            bookCache.idsByIsbn().put(isbn, book.getId());
+            bookCache.booksById().put(book.getId(), book.copy(), version);
+        }
+        return book;
+    }
+    
+    @Override
+    public List<Book> findByIds(List<Integer> ids) throws SQLException {
+        LruCache<Integer, Book> cache = BookCache.getInstance().booksById();
+        Map<Integer, Book> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            Book book = cache.get(id);
+            if (book != null) {
+                found.put(id, book.copy());
+            } else {
+                missing.add(id);
+            }
+        }
+        
+        if (!missing.isEmpty()) {
+            long version = cache.version();
+            for (Book book : super.findByIds(missing)) {
+                found.put(book.getId(), book);
+                cache.put(book.getId(), book.copy(), version);
+            }
+        }
+        
+        List<Book> books = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Book book = found.get(id);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+    
+    @Override
+    public List<Book> findByCategory(String category) throws SQLException {
+        String key = "category:" + category;
+        LruCache<String, List<Book>> cache = BookCache.getInstance().bookLists();
+        List<Book> cached = cache.get(key);
+        if (cached != null) {
+            return copies(cached);
+        }
+        long version = cache.version();
+        List<Book> books = super.findByCategory(category);
+        cache.put(key, Collections.unmodifiableList(copies(books)), version);
+        return books;
+    }
+    
+    @Override
+    public List<Book> findPage(int afterId, int limit, SortOrder sort) throws SQLException {
+        String key = "page:" + afterId + ":" + limit + ":" + sort;
+        LruCache<String, List<Book>> cache = BookCache.getInstance().bookLists();
+        List<Book> cached = cache.get(key);
+        if (cached != null) {
+            return copies(cached);
+        }
+        long version = cache.version();
+        List<Book> books = super.findPage(afterId, limit, sort);
+        cache.put(key, Collections.unmodifiableList(copies(books)), version);
+        return books;
+    }
+    
+    @Override
+    public List<String> getAllCategories() throws SQLException {
+        LruCache<String, List<String>> cache = BookCache.getInstance().categoryLists();
+        List<String> categories = cache.get(CATEGORIES_KEY);
+        if (categories == null) {
+            long version = cache.version();
+            categories = Collections.unmodifiableList(super.getAllCategories());
+            cache.put(CATEGORIES_KEY, categories, version);
+        }
+        return categories;
+    }
+    
+    private static List<Book> copies(List<Book> books) {
+        List<Book> copies = new ArrayList<>(books.size());
+        for (Book book : books) {
+            copies.add(book.copy());
+        }
+        return copies;
+    }
+}
\ No newline at end of file
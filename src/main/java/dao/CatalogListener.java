@@ -0,0 +1,7 @@
+package dao;
+
+public interface CatalogListener {
+    int ALL_BOOKS = 0;
+    
+    void bookChanged(int bookId);
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CatalogVersion implements CatalogListener {
+    private static final CatalogVersion INSTANCE = new CatalogVersion();
+    
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong(1);
+    private final AtomicLong lastModified = new AtomicLong(epoch / 1000 * 1000);
+    
+    private CatalogVersion() {
+        BookDAO.addCatalogListener(this);
+    }
+    
+    public static CatalogVersion getInstance() {
+        return INSTANCE;
+    }
+    
+    @Override
+    public void bookChanged(int bookId) {
+        version.incrementAndGet();
+        long now = System.currentTimeMillis() / 1000 * 1000;
+        lastModified.updateAndGet(previous -> Math.max(previous + 1000, now));
+    }
+    
+    public long getEpoch() {
+        return epoch;
+    }
+    
+    public long getVersion() {
+        return version.get();
+    }
+    
+    public long getLastModified() {
+        return lastModified.get();
+    }
+}
\ No newline at end of file
@@ -6,6 +6,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class CustomerDAO extends BaseDAO<Customer> {
+    private static final String COLUMNS = "id, name, email, phone, created_date";
+    private static final RowMapperCache<Customer> MAPPERS = new RowMapperCache<>(CustomerDAO::customerMapper);
     
     public CustomerDAO() {
         super();
@@ -17,39 +19,43 @@ public class CustomerDAO extends BaseDAO<Customer> {
     
     @Override
     public Customer findById(int id) throws SQLException {
-        String sql = "SELECT * FROM customers WHERE id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM customers WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, id);
             rs = ps.executeQuery();
             
             if (rs.next()) {
-                return extractCustomerFromResultSet(rs);
+                return rowMapper(sql, rs).map(rs);
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return null;
     }
     
     public Customer findByEmail(String email) throws SQLException {
-        String sql = "SELECT * FROM customers WHERE email = ?";
+        String sql = "SELECT " + COLUMNS + " FROM customers WHERE email = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setString(1, email);
             rs = ps.executeQuery();
             
             if (rs.next()) {
-                return extractCustomerFromResultSet(rs);
+                return rowMapper(sql, rs).map(rs);
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return null;
     }
@@ -57,19 +63,22 @@ public class CustomerDAO extends BaseDAO<Customer> {
     @Override
     public List<Customer> findAll() throws SQLException {
         List<Customer> customers = new ArrayList<>();
-        String sql = "SELECT * FROM customers ORDER BY id DESC";
+        String sql = "SELECT " + COLUMNS + " FROM customers ORDER BY id DESC";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             rs = ps.executeQuery();
             
+            RowMapper<Customer> mapper = rowMapper(sql, rs);
             while (rs.next()) {
-                customers.add(extractCustomerFromResultSet(rs));
+                customers.add(mapper.map(rs));
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return customers;
     }
@@ -77,10 +86,12 @@ public class CustomerDAO extends BaseDAO<Customer> {
     @Override
     public boolean insert(Customer customer) throws SQLException {
         String sql = "INSERT INTO customers (name, email, phone) VALUES (?, ?, ?)";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
             ps.setString(1, customer.getName());
             ps.setString(2, customer.getEmail());
             ps.setString(3, customer.getPhone());
@@ -95,7 +106,7 @@ public class CustomerDAO extends BaseDAO<Customer> {
                 return true;
             }
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
         return false;
     }
@@ -103,10 +114,12 @@ public class CustomerDAO extends BaseDAO<Customer> {
     @Override
     public boolean update(Customer customer) throws SQLException {
         String sql = "UPDATE customers SET name = ?, email = ?, phone = ? WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setString(1, customer.getName());
             ps.setString(2, customer.getEmail());
             ps.setString(3, customer.getPhone());
@@ -114,54 +127,79 @@ public class CustomerDAO extends BaseDAO<Customer> {
             
             return ps.executeUpdate() > 0;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
     }
     
     @Override
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM customers WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, id);
             return ps.executeUpdate() > 0;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
     }
     
     public List<Customer> search(String keyword) throws SQLException {
         List<Customer> customers = new ArrayList<>();
-        String sql = "SELECT * FROM customers WHERE name LIKE ? OR email LIKE ? OR phone LIKE ?";
+        String sql = "SELECT " + COLUMNS + " FROM customers WHERE name LIKE ? OR email LIKE ? OR phone LIKE ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getReadConnection();
+            ps = conn.prepareStatement(sql);
             String searchPattern = "%" + keyword + "%";
             ps.setString(1, searchPattern);
             ps.setString(2, searchPattern);
             ps.setString(3, searchPattern);
             rs = ps.executeQuery();
             
+            RowMapper<Customer> mapper = rowMapper(sql, rs);
             while (rs.next()) {
-                customers.add(extractCustomerFromResultSet(rs));
+                customers.add(mapper.map(rs));
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return customers;
     }
     
-    private Customer extractCustomerFromResultSet(ResultSet rs) throws SQLException {
-        return new Customer(
-            rs.getInt("id"),
-            rs.getString("name"),
-            rs.getString("email"),
-            rs.getString("phone"),
-            rs.getTimestamp("created_date")
+    @Override
+    protected String getTableName() {
+        return "customers";
+    }
+    
+    @Override
+    protected String getColumns() {
+        return COLUMNS;
+    }
+    
+    @Override
+    protected RowMapper<Customer> rowMapper(String sql, ResultSet rs) throws SQLException {
+        return MAPPERS.get(sql, rs);
+    }
+    
+    private static RowMapper<Customer> customerMapper(ResultColumns columns) {
+        int id = columns.indexOf("id");
+        int name = columns.indexOf("name");
+        int email = columns.indexOf("email");
+        int phone = columns.indexOf("phone");
+        int createdDate = columns.indexOf("created_date");
+        return rs -> new Customer(
+            rs.getInt(id),
+            ResultColumns.getString(rs, name),
+            ResultColumns.getString(rs, email),
+            ResultColumns.getString(rs, phone),
+            ResultColumns.getTimestamp(rs, createdDate)
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package dao;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class LastLoginWriter {
+    public static final String FLUSH_INTERVAL_KEY = "lastLoginFlushIntervalMs";
+    public static final String MAX_PENDING_KEY = "lastLoginMaxPending";
+    
+    private static final long DEFAULT_FLUSH_INTERVAL_MS = 2000;
+    private static final int DEFAULT_MAX_PENDING = 10000;
+    private static final int BATCH_SIZE = 500;
+    
+    private static volatile LastLoginWriter instance;
+    
+    private final ConcurrentHashMap<Integer, Timestamp> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AccountDAO accountDAO;
+    private final ScheduledExecutorService flusher;
+    private final int maxPending;
+    
+    private LastLoginWriter(AccountDAO accountDAO, long flushIntervalMillis, int maxPending) {
+        this.accountDAO = accountDAO;
+        this.maxPending = maxPending;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "last-login-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public static synchronized void configure(Properties props) {
+        LastLoginWriter previous = instance;
+        instance = new LastLoginWriter(new AccountDAO(),
+                getLong(props, FLUSH_INTERVAL_KEY, DEFAULT_FLUSH_INTERVAL_MS),
+                (int) getLong(props, MAX_PENDING_KEY, DEFAULT_MAX_PENDING));
+        if (previous != null) {
+            previous.close();
+        }
+    }
+    
+    public static LastLoginWriter getInstance() {
+        LastLoginWriter writer = instance;
+        if (writer == null) {
+            synchronized (LastLoginWriter.class) {
+                if (instance == null) {
+                    configure(new Properties());
+                }
+                writer = instance;
+            }
+        }
+        return writer;
+    }
+    
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+    
+    public Timestamp record(int accountId) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        if (pending.size() >= maxPending && !pending.containsKey(accountId)) {
+            accountDAO.updateLastLogin(accountId);
+            return now;
+        }
+        pending.put(accountId, now);
+        return now;
+    }
+    
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    public int flush() throws SQLException {
+        flushLock.lock();
+        try {
+            int flushed = 0;
+            Map<Integer, Timestamp> batch = new LinkedHashMap<>();
+            Iterator<Map.Entry<Integer, Timestamp>> it = pending.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Integer, Timestamp> entry = it.next();
+                batch.put(entry.getKey(), entry.getValue());
+                pending.remove(entry.getKey(), entry.getValue());
+                if (batch.size() == BATCH_SIZE || !it.hasNext()) {
+                    flushed += writeBatch(batch);
+                    batch = new LinkedHashMap<>();
+                }
+            }
+            return flushed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    private int writeBatch(Map<Integer, Timestamp> batch) throws SQLException {
+        try {
+            accountDAO.updateLastLogins(batch);
+            return batch.size();
+        } catch (SQLException e) {
+            for (Map.Entry<Integer, Timestamp> entry : batch.entrySet()) {
+                pending.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            throw e;
+        }
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+    
+    private static long getLong(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        return value != null && !value.trim().isEmpty() ? Long.parseLong(value.trim()) : defaultValue;
+    }
+}
\ No newline at end of file
@@ -1,12 +1,28 @@
 package dao;
 
 import model.Order;
+import model.OrderDetail;
 import model.OrderItem;
+import util.TransactionManager;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class OrderDAO extends BaseDAO<Order> {
+    static final String COLUMNS = "id, customer_id, order_date, total_amount, status, shipping_address, " +
+                                  "payment_method, notes";
+    private static final String ITEM_COLUMNS = "id, order_id, book_id, quantity, price, subtotal";
+    private static final String DETAIL_COLUMNS = "order_id, order_date, status, total_amount, customer_name, " +
+                                                 "customer_email, book_title, book_author, quantity, price, subtotal";
+    private static final RowMapperCache<Order> MAPPERS = new RowMapperCache<>(OrderDAO::orderMapper);
+    private static final RowMapperCache<OrderItem> ITEM_MAPPERS = new RowMapperCache<>(OrderDAO::itemMapper);
+    private static final RowMapperCache<OrderDetail> DETAIL_MAPPERS = new RowMapperCache<>(OrderDAO::detailMapper);
+    private static final int ITEM_BATCH_SIZE = 500;
+    private static final List<OrderListener> orderListeners = new CopyOnWriteArrayList<>();
     
     public OrderDAO() {
         super();
@@ -18,108 +34,157 @@ public class OrderDAO extends BaseDAO<Order> {
     
     @Override
     public Order findById(int id) throws SQLException {
-        String sql = "SELECT * FROM orders WHERE id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM orders WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, id);
             rs = ps.executeQuery();
             
             if (rs.next()) {
-                Order order = extractOrderFromResultSet(rs);
-                order.setOrderItems(getOrderItems(id));
+                Order order = rowMapper(sql, rs).map(rs);
+                order.setOrderItems(getOrderItems(conn, id));
                 return order;
             }
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return null;
     }
     
     public List<Order> findByCustomerId(int customerId) throws SQLException {
+        return findByCustomerId(customerId, FetchMode.EAGER);
+    }
+    
+    public List<Order> findByCustomerId(int customerId, FetchMode fetchMode) throws SQLException {
         List<Order> orders = new ArrayList<>();
-        String sql = "SELECT * FROM orders WHERE customer_id = ? ORDER BY order_date DESC";
+        String sql = "SELECT " + COLUMNS + " FROM orders WHERE customer_id = ? ORDER BY order_date DESC";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getReadConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, customerId);
             rs = ps.executeQuery();
             
+            RowMapper<Order> mapper = rowMapper(sql, rs);
             while (rs.next()) {
-                Order order = extractOrderFromResultSet(rs);
-                order.setOrderItems(getOrderItems(order.getId()));
-                orders.add(order);
+                orders.add(mapper.map(rs));
             }
+            attachOrderItems(conn, orders, fetchMode);
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return orders;
     }
     
     @Override
     public List<Order> findAll() throws SQLException {
+        return findAll(FetchMode.EAGER);
+    }
+    
+    public List<Order> findAll(FetchMode fetchMode) throws SQLException {
         List<Order> orders = new ArrayList<>();
-        String sql = "SELECT * FROM orders ORDER BY order_date DESC";
+        String sql = "SELECT " + COLUMNS + " FROM orders ORDER BY order_date DESC";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             rs = ps.executeQuery();
             
+            RowMapper<Order> mapper = rowMapper(sql, rs);
             while (rs.next()) {
-                Order order = extractOrderFromResultSet(rs);
-                order.setOrderItems(getOrderItems(order.getId()));
-                orders.add(order);
+                orders.add(mapper.map(rs));
             }
+            attachOrderItems(conn, orders, fetchMode);
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
+        }
+        return orders;
+    }
+    
+    @Override
+    public List<Order> findPage(int afterId, int limit, SortOrder sort) throws SQLException {
+        return findPage(afterId, limit, sort, FetchMode.EAGER);
+    }
+    
+    public List<Order> findPage(int afterId, int limit, SortOrder sort, FetchMode fetchMode) throws SQLException {
+        List<Order> orders = super.findPage(afterId, limit, sort);
+        Connection conn = null;
+        
+        try {
+            conn = getConnection();
+            attachOrderItems(conn, orders, fetchMode);
+        } finally {
+            releaseConnection(conn);
         }
         return orders;
     }
     
     public List<Order> findByStatus(String status) throws SQLException {
+        return findByStatus(status, FetchMode.EAGER);
+    }
+    
+    public List<Order> findByStatus(String status, FetchMode fetchMode) throws SQLException {
         List<Order> orders = new ArrayList<>();
-        String sql = "SELECT * FROM orders WHERE status = ? ORDER BY order_date DESC";
+        String sql = "SELECT " + COLUMNS + " FROM orders WHERE status = ? ORDER BY order_date DESC";
+        Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setString(1, status);
             rs = ps.executeQuery();
             
+            RowMapper<Order> mapper = rowMapper(sql, rs);
             while (rs.next()) {
-                Order order = extractOrderFromResultSet(rs);
-                order.setOrderItems(getOrderItems(order.getId()));
-                orders.add(order);
+                orders.add(mapper.map(rs));
             }
+            attachOrderItems(conn, orders, fetchMode);
         } finally {
-            closeResources(rs, ps);
+            closeResources(rs, ps, conn);
         }
         return orders;
     }
     
     @Override
     public boolean insert(Order order) throws SQLException {
-        String sql = "INSERT INTO orders (customer_id, total_amount, status, shipping_address, payment_method, notes) " +
-                     "VALUES (?, ?, ?, ?, ?, ?)";
+        return TransactionManager.execute(() -> insertOrder(order));
+    }
+    
+    private boolean insertOrder(Order order) throws SQLException {
+        String sql = "INSERT INTO orders (customer_id, order_date, total_amount, status, shipping_address, payment_method, notes) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            connection.setAutoCommit(false);
-            
-            ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            if (order.getOrderDate() == null) {
+                order.setOrderDate(new Timestamp(System.currentTimeMillis()));
+            }
+            if (order.getStatus() == null) {
+                order.setStatus("PENDING");
+            }
+            conn = getConnection();
+            ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
             ps.setInt(1, order.getCustomerId());
-            ps.setBigDecimal(2, order.getTotalAmount());
-            ps.setString(3, order.getStatus() != null ? order.getStatus() : "PENDING");
-            ps.setString(4, order.getShippingAddress());
-            ps.setString(5, order.getPaymentMethod());
-            ps.setString(6, order.getNotes());
+            ps.setTimestamp(2, order.getOrderDate());
+            ps.setBigDecimal(3, order.getTotalAmount());
+            ps.setString(4, order.getStatus());
+            ps.setString(5, order.getShippingAddress());
+            ps.setString(6, order.getPaymentMethod());
+            ps.setString(7, order.getNotes());
             
             int affectedRows = ps.executeUpdate();
             
@@ -129,35 +194,26 @@ public class OrderDAO extends BaseDAO<Order> {
                     order.setId(generatedKeys.getInt(1));
                     
                     if (order.getOrderItems() != null && !order.getOrderItems().isEmpty()) {
-                        insertOrderItems(order.getId(), order.getOrderItems());
+                        insertOrderItems(conn, order.getId(), order.getOrderItems());
                     }
-                    
-                    connection.commit();
+                    fireOrderPlaced(order);
                     return true;
                 }
             }
             
-            connection.rollback();
-        } catch (SQLException e) {
-            if (connection != null) {
-                connection.rollback();
-            }
-            throw e;
+            TransactionManager.setRollbackOnly();
         } finally {
-            if (connection != null) {
-                connection.setAutoCommit(true);
-            }
-            closeResources(ps);
+            closeResources(ps, conn);
         }
         return false;
     }
     
-    private void insertOrderItems(int orderId, List<OrderItem> items) throws SQLException {
+    private void insertOrderItems(Connection conn, int orderId, List<OrderItem> items) throws SQLException {
         String sql = "INSERT INTO order_items (order_id, book_id, quantity, price, subtotal) VALUES (?, ?, ?, ?, ?)";
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            ps = conn.prepareStatement(sql);
             
             for (OrderItem item : items) {
                 ps.setInt(1, orderId);
@@ -177,10 +233,12 @@ public class OrderDAO extends BaseDAO<Order> {
     @Override
     public boolean update(Order order) throws SQLException {
         String sql = "UPDATE orders SET status = ?, shipping_address = ?, payment_method = ?, notes = ? WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setString(1, order.getStatus());
             ps.setString(2, order.getShippingAddress());
             ps.setString(3, order.getPaymentMethod());
@@ -189,60 +247,224 @@ public class OrderDAO extends BaseDAO<Order> {
             
             return ps.executeUpdate() > 0;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
         }
     }
     
     public boolean updateStatus(int orderId, String status) throws SQLException {
+        if (!orderListeners.isEmpty()) {
+            return TransactionManager.execute(() -> updateStatusNotifying(orderId, status));
+        }
         String sql = "UPDATE orders SET status = ? WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setString(1, status);
             ps.setInt(2, orderId);
             
             return ps.executeUpdate() > 0;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
+        }
+    }
+    
+    private boolean updateStatusNotifying(int orderId, String status) throws SQLException {
+        String select = "SELECT " + COLUMNS + " FROM orders WHERE id = ? FOR UPDATE";
+        String update = "UPDATE orders SET status = ? WHERE id = ?";
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(select);
+            ps.setInt(1, orderId);
+            rs = ps.executeQuery();
+            if (!rs.next()) {
+                return false;
+            }
+            Order order = rowMapper(select, rs).map(rs);
+            closeResources(rs, ps);
+            rs = null;
+            
+            ps = conn.prepareStatement(update);
+            ps.setString(1, status);
+            ps.setInt(2, orderId);
+            if (ps.executeUpdate() == 0) {
+                return false;
+            }
+            
+            String previousStatus = order.getStatus();
+            if (!status.equals(previousStatus)) {
+                order.setOrderItems(getOrderItems(conn, orderId));
+                order.setStatus(status);
+                fireOrderStatusChanged(order, previousStatus);
+            }
+            return true;
+        } finally {
+            closeResources(rs, ps, conn);
         }
     }
     
     @Override
     public boolean delete(int id) throws SQLException {
+        if (!orderListeners.isEmpty()) {
+            return TransactionManager.execute(() -> deleteNotifying(id));
+        }
         String sql = "DELETE FROM orders WHERE id = ?";
+        Connection conn = null;
         PreparedStatement ps = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            conn = getConnection();
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, id);
             return ps.executeUpdate() > 0;
         } finally {
-            closeResources(ps);
+            closeResources(ps, conn);
+        }
+    }
+    
+    private boolean deleteNotifying(int orderId) throws SQLException {
+        String select = "SELECT " + COLUMNS + " FROM orders WHERE id = ? FOR UPDATE";
+        String delete = "DELETE FROM orders WHERE id = ?";
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(select);
+            ps.setInt(1, orderId);
+            rs = ps.executeQuery();
+            if (!rs.next()) {
+                return false;
+            }
+            Order order = rowMapper(select, rs).map(rs);
+            closeResources(rs, ps);
+            rs = null;
+            order.setOrderItems(getOrderItems(conn, orderId));
+            
+            ps = conn.prepareStatement(delete);
+            ps.setInt(1, orderId);
+            if (ps.executeUpdate() == 0) {
+                return false;
+            }
+            fireOrderDeleted(order);
+            return true;
+        } finally {
+            closeResources(rs, ps, conn);
+        }
+    }
+    
+    public void forEachDetail(Timestamp from, Timestamp to, RowCallback<OrderDetail> callback) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT ").append(DETAIL_COLUMNS).append(" FROM order_details_view");
+        if (from != null || to != null) {
+            sql.append(" WHERE");
+            if (from != null) {
+                sql.append(" order_date >= ?");
+            }
+            if (to != null) {
+                sql.append(from != null ? " AND" : "").append(" order_date < ?");
+            }
+        }
+        sql.append(" ORDER BY order_date, order_id");
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            int index = 1;
+            if (from != null) {
+                ps.setTimestamp(index++, from);
+            }
+            if (to != null) {
+                ps.setTimestamp(index, to);
+            }
+            rs = ps.executeQuery();
+            
+            RowMapper<OrderDetail> mapper = DETAIL_MAPPERS.get(sql.toString(), rs);
+            while (rs.next()) {
+                callback.process(mapper.map(rs));
+            }
+        } finally {
+            closeResources(rs, ps, conn);
         }
     }
     
-    private List<OrderItem> getOrderItems(int orderId) throws SQLException {
+    public static void addOrderListener(OrderListener listener) {
+        orderListeners.add(listener);
+    }
+    
+    public static void removeOrderListener(OrderListener listener) {
+        orderListeners.remove(listener);
+    }
+    
+    protected void fireOrderPlaced(Order order) {
+        if (orderListeners.isEmpty()) {
+            return;
+        }
+        TransactionManager.afterCommit(() -> {
+            for (OrderListener listener : orderListeners) {
+                try {
+                    listener.orderPlaced(order);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+    
+    protected void fireOrderStatusChanged(Order order, String previousStatus) {
+        if (orderListeners.isEmpty()) {
+            return;
+        }
+        TransactionManager.afterCommit(() -> {
+            for (OrderListener listener : orderListeners) {
+                try {
+                    listener.orderStatusChanged(order, previousStatus);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+    
+    protected void fireOrderDeleted(Order order) {
+        if (orderListeners.isEmpty()) {
+            return;
+        }
+        TransactionManager.afterCommit(() -> {
+            for (OrderListener listener : orderListeners) {
+                try {
+                    listener.orderDeleted(order);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+    
+    private List<OrderItem> getOrderItems(Connection conn, int orderId) throws SQLException {
         List<OrderItem> items = new ArrayList<>();
-        String sql = "SELECT * FROM order_items WHERE order_id = ?";
+        String sql = "SELECT " + ITEM_COLUMNS + " FROM order_items WHERE order_id = ?";
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
-            ps = connection.prepareStatement(sql);
+            ps = conn.prepareStatement(sql);
             ps.setInt(1, orderId);
             rs = ps.executeQuery();
             
+            RowMapper<OrderItem> mapper = ITEM_MAPPERS.get(sql, rs);
             while (rs.next()) {
-                OrderItem item = new OrderItem(
-                    rs.getInt("id"),
-                    rs.getInt("order_id"),
-                    rs.getInt("book_id"),
-                    rs.getInt("quantity"),
-                    rs.getBigDecimal("price"),
-                    rs.getBigDecimal("subtotal")
-                );
-                items.add(item);
+                items.add(mapper.map(rs));
             }
         } finally {
             closeResources(rs, ps);
@@ -250,16 +472,175 @@ public class OrderDAO extends BaseDAO<Order> {
         return items;
     }
     
-    private Order extractOrderFromResultSet(ResultSet rs) throws SQLException {
-        return new Order(
-            rs.getInt("id"),
-            rs.getInt("customer_id"),
-            rs.getTimestamp("order_date"),
-            rs.getBigDecimal("total_amount"),
-            rs.getString("status"),
-            rs.getString("shipping_address"),
-            rs.getString("payment_method"),
-            rs.getString("notes")
+    private void attachOrderItems(Connection conn, List<Order> orders, FetchMode fetchMode) throws SQLException {
+        if (orders.isEmpty()) {
+            return;
+        }
+        if (fetchMode == FetchMode.LAZY) {
+            LazyOrderItems loader = new LazyOrderItems(orders);
+            for (Order order : orders) {
+                order.setItemsLoader(loader);
+            }
+        } else {
+            loadOrderItems(conn, orders);
+        }
+    }
+    
+    private void loadOrderItems(Connection conn, List<Order> orders) throws SQLException {
+        Map<Integer, List<OrderItem>> itemsByOrder = new HashMap<>();
+        for (Order order : orders) {
+            itemsByOrder.put(order.getId(), new ArrayList<>());
+        }
+        
+        for (int from = 0; from < orders.size(); from += ITEM_BATCH_SIZE) {
+            int to = Math.min(from + ITEM_BATCH_SIZE, orders.size());
+            StringBuilder sql = new StringBuilder("SELECT ").append(ITEM_COLUMNS).append(" FROM order_items WHERE order_id IN (");
+            for (int i = from; i < to; i++) {
+                sql.append(i > from ? ", ?" : "?");
+            }
+            sql.append(") ORDER BY order_id, id");
+            
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+            
+            try {
+                ps = conn.prepareStatement(sql.toString());
+                for (int i = from; i < to; i++) {
+                    ps.setInt(i - from + 1, orders.get(i).getId());
+                }
+                rs = ps.executeQuery();
+                
+                RowMapper<OrderItem> mapper = ITEM_MAPPERS.get(sql.toString(), rs);
+                while (rs.next()) {
+                    OrderItem item = mapper.map(rs);
+                    itemsByOrder.get(item.getOrderId()).add(item);
+                }
+            } finally {
+                closeResources(rs, ps);
+            }
+        }
+        
+        for (Order order : orders) {
+            order.setOrderItems(itemsByOrder.get(order.getId()));
+        }
+    }
+    
+    @Override
+    protected String getTableName() {
+        return "orders";
+    }
+    
+    @Override
+    protected String getColumns() {
+        return COLUMNS;
+    }
+    
+    @Override
+    protected RowMapper<Order> rowMapper(String sql, ResultSet rs) throws SQLException {
+        return MAPPERS.get(sql, rs);
+    }
+    
+    private static RowMapper<Order> orderMapper(ResultColumns columns) {
+        int id = columns.indexOf("id");
+        int customerId = columns.indexOf("customer_id");
+        int orderDate = columns.indexOf("order_date");
+        int totalAmount = columns.indexOf("total_amount");
+        int status = columns.indexOf("status");
+        int shippingAddress = columns.indexOf("shipping_address");
+        int paymentMethod = columns.indexOf("payment_method");
+        int notes = columns.indexOf("notes");
+        return rs -> new Order(
+            rs.getInt(id),
+            ResultColumns.getInt(rs, customerId),
+            ResultColumns.getTimestamp(rs, orderDate),
+            ResultColumns.getBigDecimal(rs, totalAmount),
+            ResultColumns.getString(rs, status),
+            ResultColumns.getString(rs, shippingAddress),
+            ResultColumns.getString(rs, paymentMethod),
+            ResultColumns.getString(rs, notes)
+        );
+    }
+    
+    private static RowMapper<OrderItem> itemMapper(ResultColumns columns) {
+        int id = columns.indexOf("id");
+        int orderId = columns.indexOf("order_id");
+        int bookId = columns.indexOf("book_id");
+        int quantity = columns.indexOf("quantity");
+        int price = columns.indexOf("price");
+        int subtotal = columns.indexOf("subtotal");
+        return rs -> new OrderItem(
+            rs.getInt(id),
+            ResultColumns.getInt(rs, orderId),
+            ResultColumns.getInt(rs, bookId),
+            ResultColumns.getInt(rs, quantity),
+            ResultColumns.getBigDecimal(rs, price),
+            ResultColumns.getBigDecimal(rs, subtotal)
         );
     }
+    
+    private static RowMapper<OrderDetail> detailMapper(ResultColumns columns) {
+        int orderId = columns.indexOf("order_id");
+        int orderDate = columns.indexOf("order_date");
+        int status = columns.indexOf("status");
+        int totalAmount = columns.indexOf("total_amount");
+        int customerName = columns.indexOf("customer_name");
+        int customerEmail = columns.indexOf("customer_email");
+        int bookTitle = columns.indexOf("book_title");
+        int bookAuthor = columns.indexOf("book_author");
+        int quantity = columns.indexOf("quantity");
+        int price = columns.indexOf("price");
+        int subtotal = columns.indexOf("subtotal");
+        return rs -> {
+            OrderDetail detail = new OrderDetail();
+            detail.setOrderId(ResultColumns.getInt(rs, orderId));
+            detail.setOrderDate(ResultColumns.getTimestamp(rs, orderDate));
+            detail.setStatus(ResultColumns.getString(rs, status));
+            detail.setTotalAmount(ResultColumns.getBigDecimal(rs, totalAmount));
+            detail.setCustomerName(ResultColumns.getString(rs, customerName));
+            detail.setCustomerEmail(ResultColumns.getString(rs, customerEmail));
+            detail.setBookTitle(ResultColumns.getString(rs, bookTitle));
+            detail.setBookAuthor(ResultColumns.getString(rs, bookAuthor));
+            detail.setQuantity(ResultColumns.getInt(rs, quantity));
+            detail.setPrice(ResultColumns.getBigDecimal(rs, price));
+            detail.setSubtotal(ResultColumns.getBigDecimal(rs, subtotal));
+            return detail;
+        };
+    }
+    
+    public enum FetchMode {
+        EAGER,
+        LAZY
+    }
+    
+    private class LazyOrderItems implements Order.ItemsLoader {
+        private final List<Order> orders;
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean loaded;
+        
+        LazyOrderItems(List<Order> orders) {
+            this.orders = orders;
+        }
+        
+        @Override
+        public void load() {
+            lock.lock();
+            try {
+                if (loaded) {
+                    return;
+                }
+                Connection conn = null;
+                try {
+                    conn = getConnection();
+                    loadOrderItems(conn, orders);
+                    loaded = true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Failed to load order items", e);
+                } finally {
+                    releaseConnection(conn);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
 }
\ No newline at end of file
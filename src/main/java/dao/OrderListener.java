@@ -0,0 +1,11 @@
+package dao;
+
+import model.Order;
+
+public interface OrderListener {
+    void orderPlaced(Order order);
+    
+    void orderStatusChanged(Order order, String previousStatus);
+    
+    void orderDeleted(Order order);
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package dao;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public final class ResultColumns {
+    private final Map<String, Integer> indexes;
+    
+    private ResultColumns(Map<String, Integer> indexes) {
+        this.indexes = indexes;
+    }
+    
+    public static ResultColumns of(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int count = metaData.getColumnCount();
+        Map<String, Integer> indexes = new HashMap<>(count * 2);
+        for (int i = 1; i <= count; i++) {
+            indexes.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new ResultColumns(indexes);
+    }
+    
+    public int indexOf(String column) {
+        Integer index = indexes.get(column);
+        return index != null ? index : 0;
+    }
+    
+    public static int getInt(ResultSet rs, int index) throws SQLException {
+        return index > 0 ? rs.getInt(index) : 0;
+    }
+    
+    public static boolean getBoolean(ResultSet rs, int index) throws SQLException {
+        return index > 0 && rs.getBoolean(index);
+    }
+    
+    public static String getString(ResultSet rs, int index) throws SQLException {
+        return index > 0 ? rs.getString(index) : null;
+    }
+    
+    public static BigDecimal getBigDecimal(ResultSet rs, int index) throws SQLException {
+        return index > 0 ? rs.getBigDecimal(index) : null;
+    }
+    
+    public static Date getDate(ResultSet rs, int index) throws SQLException {
+        return index > 0 ? rs.getDate(index) : null;
+    }
+    
+    public static Timestamp getTimestamp(ResultSet rs, int index) throws SQLException {
+        return index > 0 ? rs.getTimestamp(index) : null;
+    }
+}
\ No newline at end of file
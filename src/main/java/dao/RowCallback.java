@@ -0,0 +1,7 @@
+package dao;
+
+import java.sql.SQLException;
+
+public interface RowCallback<T> {
+    void process(T row) throws SQLException;
+}
\ No newline at end of file
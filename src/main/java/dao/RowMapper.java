@@ -0,0 +1,8 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
\ No newline at end of file
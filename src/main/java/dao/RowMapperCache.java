@@ -0,0 +1,32 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class RowMapperCache<T> {
+    private static final int MAX_SHAPES = 256;
+    
+    private final ConcurrentHashMap<String, RowMapper<T>> mappers = new ConcurrentHashMap<>();
+    private final Function<ResultColumns, RowMapper<T>> factory;
+    
+    public RowMapperCache(Function<ResultColumns, RowMapper<T>> factory) {
+        this.factory = factory;
+    }
+    
+    public RowMapper<T> get(String sql, ResultSet rs) throws SQLException {
+        RowMapper<T> mapper = mappers.get(sql);
+        if (mapper == null) {
+            mapper = factory.apply(ResultColumns.of(rs));
+            if (mappers.size() < MAX_SHAPES) {
+                mappers.putIfAbsent(sql, mapper);
+            }
+        }
+        return mapper;
+    }
+    
+    public int size() {
+        return mappers.size();
+    }
+}
\ No newline at end of file
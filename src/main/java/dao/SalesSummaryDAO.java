@@ -0,0 +1,242 @@
+package dao;
+
+import model.BookSales;
+import model.DailySales;
+import model.StatusTotals;
+import util.DBConnection;
+import util.TransactionManager;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SalesSummaryDAO {
+    public static final String CANCELLED = "CANCELLED";
+    
+    private static final int STATUS_BATCH_SIZE = 500;
+    private static final String SAVE_DAILY =
+        "INSERT INTO sales_daily (sale_date, order_count, items_sold, revenue) VALUES (?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE order_count = VALUES(order_count), items_sold = VALUES(items_sold), " +
+        "revenue = VALUES(revenue)";
+    private static final String SAVE_STATUS =
+        "INSERT INTO sales_by_status (status, order_count, total_amount) VALUES (?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE order_count = VALUES(order_count), total_amount = VALUES(total_amount)";
+    private static final String SAVE_BOOK =
+        "INSERT INTO sales_by_book (book_id, quantity_sold, revenue) VALUES (?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE quantity_sold = VALUES(quantity_sold), revenue = VALUES(revenue)";
+    
+    public List<DailySales> findDaily(Date since) throws SQLException {
+        String sql = "SELECT sale_date, order_count, items_sold, revenue FROM sales_daily WHERE sale_date >= ?";
+        List<DailySales> days = new ArrayList<>();
+        try (Connection conn = DBConnection.createConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setDate(1, since);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    days.add(new DailySales(rs.getDate(1), rs.getInt(2), rs.getInt(3), rs.getBigDecimal(4)));
+                }
+            }
+        }
+        return days;
+    }
+    
+    public List<StatusTotals> findStatusTotals() throws SQLException {
+        try (Connection conn = DBConnection.createConnection()) {
+            return queryStatusTotals(conn, "SELECT status, order_count, total_amount FROM sales_by_status");
+        }
+    }
+    
+    public List<BookSales> findBookSales() throws SQLException {
+        try (Connection conn = DBConnection.createConnection()) {
+            return queryBookSales(conn, "SELECT book_id, quantity_sold, revenue FROM sales_by_book");
+        }
+    }
+    
+    public List<DailySales> aggregateDaily(Date since) throws SQLException {
+        String orders = "SELECT DATE(order_date) AS sale_date, COUNT(*), SUM(total_amount) FROM orders " +
+                        "WHERE order_date >= ? AND status <> ? GROUP BY DATE(order_date)";
+        String items = "SELECT DATE(o.order_date) AS sale_date, SUM(oi.quantity) FROM orders o " +
+                       "JOIN order_items oi ON oi.order_id = o.id " +
+                       "WHERE o.order_date >= ? AND o.status <> ? GROUP BY DATE(o.order_date)";
+        return TransactionManager.execute(() -> {
+            Connection conn = TransactionManager.currentConnection();
+            Map<Date, DailySales> days = new LinkedHashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(orders)) {
+                ps.setDate(1, since);
+                ps.setString(2, CANCELLED);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Date day = rs.getDate(1);
+                        days.put(day, new DailySales(day, rs.getInt(2), 0, rs.getBigDecimal(3)));
+                    }
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(items)) {
+                ps.setDate(1, since);
+                ps.setString(2, CANCELLED);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        DailySales day = days.get(rs.getDate(1));
+                        if (day != null) {
+                            day.setItemsSold(rs.getInt(2));
+                        }
+                    }
+                }
+            }
+            return new ArrayList<>(days.values());
+        });
+    }
+    
+    public List<StatusTotals> aggregateStatusTotals() throws SQLException {
+        return TransactionManager.execute(() -> queryStatusTotals(TransactionManager.currentConnection(),
+                "SELECT status, COUNT(*), SUM(total_amount) FROM orders GROUP BY status"));
+    }
+    
+    public List<BookSales> aggregateBookSales() throws SQLException {
+        return TransactionManager.execute(() -> queryBookSales(TransactionManager.currentConnection(),
+                "SELECT oi.book_id, SUM(oi.quantity), SUM(oi.subtotal) FROM order_items oi " +
+                "JOIN orders o ON o.id = oi.order_id WHERE o.status <> '" + CANCELLED + "' " +
+                "GROUP BY oi.book_id"));
+    }
+    
+    public Map<Integer, String> findOrderStatuses(Collection<Integer> orderIds) throws SQLException {
+        Map<Integer, String> statuses = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return statuses;
+        }
+        List<Integer> ids = new ArrayList<>(orderIds);
+        return TransactionManager.execute(() -> {
+            Connection conn = TransactionManager.currentConnection();
+            for (int from = 0; from < ids.size(); from += STATUS_BATCH_SIZE) {
+                List<Integer> batch = ids.subList(from, Math.min(from + STATUS_BATCH_SIZE, ids.size()));
+                StringBuilder sql = new StringBuilder("SELECT id, status FROM orders WHERE id IN (");
+                for (int i = 0; i < batch.size(); i++) {
+                    sql.append(i > 0 ? ", ?" : "?");
+                }
+                sql.append(")");
+                try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        ps.setInt(i + 1, batch.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            statuses.put(rs.getInt(1), rs.getString(2));
+                        }
+                    }
+                }
+            }
+            return statuses;
+        });
+    }
+    
+    public void save(Collection<DailySales> days, Collection<StatusTotals> statuses,
+                     Collection<BookSales> books) throws SQLException {
+        if (days.isEmpty() && statuses.isEmpty() && books.isEmpty()) {
+            return;
+        }
+        TransactionManager.execute(() -> {
+            Connection conn = TransactionManager.currentConnection();
+            saveDaily(conn, days);
+            saveStatusTotals(conn, statuses);
+            saveBookSales(conn, books);
+            return null;
+        });
+    }
+    
+    public void replace(Date since, Collection<DailySales> days, Collection<StatusTotals> statuses,
+                        Collection<BookSales> books) throws SQLException {
+        TransactionManager.execute(() -> {
+            Connection conn = TransactionManager.currentConnection();
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM sales_daily WHERE sale_date >= ?")) {
+                ps.setDate(1, since);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM sales_by_status")) {
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM sales_by_book")) {
+                ps.executeUpdate();
+            }
+            saveDaily(conn, days);
+            saveStatusTotals(conn, statuses);
+            saveBookSales(conn, books);
+            return null;
+        });
+    }
+    
+    private List<StatusTotals> queryStatusTotals(Connection conn, String sql) throws SQLException {
+        List<StatusTotals> statuses = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                statuses.add(new StatusTotals(rs.getString(1), rs.getInt(2), rs.getBigDecimal(3)));
+            }
+        }
+        return statuses;
+    }
+    
+    private List<BookSales> queryBookSales(Connection conn, String sql) throws SQLException {
+        List<BookSales> books = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                books.add(new BookSales(rs.getInt(1), rs.getInt(2), rs.getBigDecimal(3)));
+            }
+        }
+        return books;
+    }
+    
+    private void saveDaily(Connection conn, Collection<DailySales> days) throws SQLException {
+        if (days.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(SAVE_DAILY)) {
+            for (DailySales day : days) {
+                ps.setDate(1, day.getSaleDate());
+                ps.setInt(2, day.getOrderCount());
+                ps.setInt(3, day.getItemsSold());
+                ps.setBigDecimal(4, day.getRevenue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+    
+    private void saveStatusTotals(Connection conn, Collection<StatusTotals> statuses) throws SQLException {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(SAVE_STATUS)) {
+            for (StatusTotals status : statuses) {
+                ps.setString(1, status.getStatus());
+                ps.setInt(2, status.getOrderCount());
+                ps.setBigDecimal(3, status.getTotalAmount());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+    
+    private void saveBookSales(Connection conn, Collection<BookSales> books) throws SQLException {
+        if (books.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(SAVE_BOOK)) {
+            for (BookSales book : books) {
+                ps.setInt(1, book.getBookId());
+                ps.setInt(2, book.getQuantitySold());
+                ps.setBigDecimal(3, book.getRevenue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
\ No newline at end of file
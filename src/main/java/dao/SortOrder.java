@@ -0,0 +1,6 @@
+package dao;
+
+public enum SortOrder {
+    ASC,
+    DESC
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package filter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+public class CompressionFilter implements Filter {
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+    
+    private static final int DEFAULT_MIN_SIZE = 1024;
+    private static final String DEFAULT_EXCLUDED_TYPES = "image/jpeg,image/png,image/gif,application/zip,application/gzip";
+    private static final String DEFAULT_PRECOMPRESSED_EXTENSIONS = ".css,.js";
+    
+    private ServletContext context;
+    private int minSize;
+    private Set<String> excludedTypes;
+    private Set<String> precompressedExtensions;
+    
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        context = filterConfig.getServletContext();
+        String value = filterConfig.getInitParameter("minSize");
+        minSize = value != null && !value.trim().isEmpty() ? Integer.parseInt(value.trim()) : DEFAULT_MIN_SIZE;
+        excludedTypes = parseList(filterConfig.getInitParameter("excludedMimeTypes"), DEFAULT_EXCLUDED_TYPES);
+        precompressedExtensions = parseList(filterConfig.getInitParameter("precompressedExtensions"),
+                DEFAULT_PRECOMPRESSED_EXTENSIONS);
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) 
+            throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        if (!httpResponse.getHeaders("Vary").contains("Accept-Encoding")) {
+            httpResponse.addHeader("Vary", "Accept-Encoding");
+        }
+        
+        String encoding = negotiate(httpRequest.getHeader("Accept-Encoding"));
+        if (encoding == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (GZIP.equals(encoding) && servePrecompressed(httpRequest, httpResponse)) {
+            return;
+        }
+        
+        CompressionResponseWrapper wrapper = new CompressionResponseWrapper(httpResponse, encoding, minSize, excludedTypes);
+        boolean async = false;
+        try {
+            chain.doFilter(request, wrapper);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new FinishListener(wrapper));
+            } else {
+                wrapper.finish();
+            }
+        }
+    }
+    
+    @Override
+    public void destroy() {
+    }
+    
+    private boolean servePrecompressed(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+        String path = request.getServletPath() + (request.getPathInfo() != null ? request.getPathInfo() : "");
+        int dot = path.lastIndexOf('.');
+        if (dot < 0 || !precompressedExtensions.contains(path.substring(dot).toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        String originalPath = context.getRealPath(path);
+        String compressedPath = context.getRealPath(path + ".gz");
+        if (originalPath == null || compressedPath == null) {
+            return false;
+        }
+        File original = new File(originalPath);
+        File compressed = new File(compressedPath);
+        if (!compressed.isFile() || !original.isFile() || compressed.lastModified() < original.lastModified()) {
+            return false;
+        }
+        
+        long lastModified = original.lastModified() / 1000 * 1000;
+        long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+        if (ifModifiedSince >= 0 && lastModified <= ifModifiedSince) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        
+        String mimeType = context.getMimeType(path);
+        response.setContentType(mimeType != null ? mimeType : "application/octet-stream");
+        response.setHeader("Content-Encoding", GZIP);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setContentLengthLong(compressed.length());
+        if ("HEAD".equals(method)) {
+            return true;
+        }
+        
+        try (FileInputStream in = new FileInputStream(compressed); FileChannel channel = in.getChannel()) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            long size = channel.size();
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+        return true;
+    }
+    
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (GZIP.equals(coding) || "x-gzip".equals(coding)) {
+                gzip = quality;
+            } else if (DEFLATE.equals(coding)) {
+                deflate = quality;
+            } else if ("*".equals(coding)) {
+                wildcard = quality;
+            }
+        }
+        gzip = gzip < 0 ? wildcard : gzip;
+        deflate = deflate < 0 ? wildcard : deflate;
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : null;
+    }
+    
+    private static Set<String> parseList(String value, String defaultValue) {
+        Set<String> values = new HashSet<>();
+        for (String item : Arrays.asList((value != null ? value : defaultValue).split(","))) {
+            if (!item.trim().isEmpty()) {
+                values.add(item.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return values;
+    }
+    
+    private static class FinishListener implements AsyncListener {
+        private final CompressionResponseWrapper wrapper;
+        
+        FinishListener(CompressionResponseWrapper wrapper) {
+            this.wrapper = wrapper;
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            wrapper.finish();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
\ No newline at end of file
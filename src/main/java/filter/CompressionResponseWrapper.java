@@ -0,0 +1,233 @@
+package filter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class CompressionResponseWrapper extends HttpServletResponseWrapper {
+    private final String encoding;
+    private final int minSize;
+    private final Set<String> excludedTypes;
+    private CompressingOutputStream stream;
+    private PrintWriter writer;
+    private long contentLength = -1;
+    
+    public CompressionResponseWrapper(HttpServletResponse response, String encoding, int minSize,
+                                      Set<String> excludedTypes) {
+        super(response);
+        this.encoding = encoding;
+        this.minSize = minSize;
+        this.excludedTypes = excludedTypes;
+    }
+    
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (stream == null) {
+            stream = new CompressingOutputStream();
+        }
+        return stream;
+    }
+    
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            stream = new CompressingOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+    
+    @Override
+    public void setContentLength(int length) {
+        setContentLengthLong(length);
+    }
+    
+    @Override
+    public void setContentLengthLong(long length) {
+        contentLength = length;
+    }
+    
+    @Override
+    public void setHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            contentLength = value != null ? Long.parseLong(value) : -1;
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+    
+    @Override
+    public void addHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            setHeader(name, value);
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+    
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (stream != null) {
+            stream.flush();
+        }
+        super.flushBuffer();
+    }
+    
+    @Override
+    public void resetBuffer() {
+        if (stream != null) {
+            stream.resetBuffer();
+        }
+        super.resetBuffer();
+    }
+    
+    @Override
+    public void reset() {
+        resetBuffer();
+        contentLength = -1;
+        super.reset();
+    }
+    
+    public void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (stream != null) {
+            stream.finish();
+        } else if (contentLength >= 0) {
+            super.setContentLengthLong(contentLength);
+        }
+    }
+    
+    private boolean shouldCompress() {
+        if (getHeader("Content-Encoding") != null || isCommitted()) {
+            return false;
+        }
+        String contentType = getContentType();
+        if (contentType == null) {
+            return true;
+        }
+        int semicolon = contentType.indexOf(';');
+        String mimeType = (semicolon >= 0 ? contentType.substring(0, semicolon) : contentType).trim();
+        return !excludedTypes.contains(mimeType.toLowerCase(Locale.ROOT));
+    }
+    
+    private class CompressingOutputStream extends ServletOutputStream {
+        private byte[] buffer = new byte[Math.max(minSize, 1)];
+        private int buffered;
+        private ServletOutputStream delegate;
+        private OutputStream target;
+        private boolean finished;
+        
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+        
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (finished) {
+                throw new IOException("Response already finished");
+            }
+            if (target == null) {
+                if (buffered + length <= minSize) {
+                    System.arraycopy(bytes, offset, buffer, buffered, length);
+                    buffered += length;
+                    return;
+                }
+                start(shouldCompress());
+            }
+            target.write(bytes, offset, length);
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+        
+        void resetBuffer() {
+            if (target == null) {
+                buffered = 0;
+            }
+        }
+        
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (target == null) {
+                if (buffered > 0) {
+                    CompressionResponseWrapper.super.setContentLengthLong(buffered);
+                    getResponse().getOutputStream().write(buffer, 0, buffered);
+                } else if (contentLength >= 0) {
+                    CompressionResponseWrapper.super.setContentLengthLong(contentLength);
+                }
+                return;
+            }
+            if (target instanceof DeflaterOutputStream) {
+                target.close();
+            } else {
+                target.flush();
+            }
+        }
+        
+        private void start(boolean compress) throws IOException {
+            ServletOutputStream out = getResponse().getOutputStream();
+            delegate = out;
+            if (compress) {
+                CompressionResponseWrapper.super.setHeader("Content-Encoding", encoding);
+                target = CompressionFilter.GZIP.equals(encoding)
+                        ? new GZIPOutputStream(out, 8192, true)
+                        : new DeflaterOutputStream(out, true);
+            } else {
+                if (contentLength >= 0) {
+                    CompressionResponseWrapper.super.setContentLengthLong(contentLength);
+                }
+                target = out;
+            }
+            if (buffered > 0) {
+                target.write(buffer, 0, buffered);
+                buffered = 0;
+            }
+            buffer = null;
+        }
+        
+        @Override
+        public boolean isReady() {
+            return delegate == null || delegate.isReady();
+        }
+        
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            if (target == null) {
+                try {
+                    start(false);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not start non-blocking response", e);
+                }
+            }
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package filter;
+
+import metrics.MetricsRegistry;
+import metrics.QueryDiagnostics;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletMapping;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+public class MetricsFilter implements Filter {
+    private MetricsRegistry registry;
+    private QueryDiagnostics diagnostics;
+    
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        registry = MetricsRegistry.getInstance();
+        diagnostics = QueryDiagnostics.getInstance();
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) 
+            throws IOException, ServletException {
+        if (!registry.isEnabled() || !(request instanceof HttpServletRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        String servletName = getServletName((HttpServletRequest) request);
+        QueryDiagnostics.RequestTrace trace = diagnostics.beginRequest(servletName);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                diagnostics.suspend();
+                request.getAsyncContext().addListener(new CompletionListener(servletName, trace, start,
+                        (HttpServletResponse) response));
+            } else {
+                record(servletName, trace, start, failed, (HttpServletResponse) response);
+            }
+        }
+    }
+    
+    @Override
+    public void destroy() {
+    }
+    
+    private void record(String servletName, QueryDiagnostics.RequestTrace trace, long start, boolean failed,
+                        HttpServletResponse response) {
+        registry.request(servletName).record(System.nanoTime() - start, failed || response.getStatus() >= 500);
+        diagnostics.endRequest(trace);
+    }
+    
+    private String getServletName(HttpServletRequest request) {
+        HttpServletMapping mapping = request.getHttpServletMapping();
+        return mapping != null && mapping.getServletName() != null ? mapping.getServletName() : "unmapped";
+    }
+    
+    private class CompletionListener implements AsyncListener {
+        private final String servletName;
+        private final QueryDiagnostics.RequestTrace trace;
+        private final long start;
+        private final HttpServletResponse response;
+        
+        CompletionListener(String servletName, QueryDiagnostics.RequestTrace trace, long start,
+                           HttpServletResponse response) {
+            this.servletName = servletName;
+            this.trace = trace;
+            this.start = start;
+            this.response = response;
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(servletName, trace, start, false, response);
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
\ No newline at end of file
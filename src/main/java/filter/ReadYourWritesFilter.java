@@ -0,0 +1,97 @@
+package filter;
+
+import util.ReplicaRouter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+
+public class ReadYourWritesFilter implements Filter {
+    
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        ReplicaRouter.Session session = ReplicaRouter.begin(getLastWrite(httpRequest.getSession(false)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRouter.end();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(httpRequest, session));
+            } else {
+                finish(httpRequest, session);
+            }
+        }
+    }
+    
+    @Override
+    public void destroy() {
+    }
+    
+    private static void finish(HttpServletRequest request, ReplicaRouter.Session session) {
+        if (!isSafeMethod(request.getMethod())) {
+            session.markWrite();
+        }
+        if (!session.hasWritten()) {
+            return;
+        }
+        HttpSession httpSession = request.getSession(false);
+        if (httpSession != null) {
+            httpSession.setAttribute(ReplicaRouter.LAST_WRITE_ATTRIBUTE, session.getLastWriteMillis());
+        }
+    }
+    
+    private static long getLastWrite(HttpSession session) {
+        Object value = session != null ? session.getAttribute(ReplicaRouter.LAST_WRITE_ATTRIBUTE) : null;
+        return value instanceof Long ? (Long) value : 0;
+    }
+    
+    private static boolean isSafeMethod(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+    
+    private static class CompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final ReplicaRouter.Session session;
+        
+        CompletionListener(HttpServletRequest request, ReplicaRouter.Session session) {
+            this.request = request;
+            this.session = session;
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish(request, session);
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package listener;
+
+import dao.BookCache;
+import dao.LastLoginWriter;
+import metrics.MetricsRegistry;
+import metrics.QueryDiagnostics;
+import service.BookSearchIndex;
+import service.FragmentCache;
+import service.InventoryService;
+import service.LoginService;
+import service.RequestExecutor;
+import service.SalesAggregates;
+import service.SuggestionIndex;
+import util.DBConnection;
+import util.PasswordUtil;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import java.util.Enumeration;
+import java.util.Properties;
+
+@WebListener
+public class AppContextListener implements ServletContextListener {
+    
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        ServletContext context = event.getServletContext();
+        Properties params = getContextParams(context);
+        MetricsRegistry.getInstance().configure(params);
+        MetricsRegistry.getInstance().registerMBean();
+        QueryDiagnostics.getInstance().configure(params);
+        DBConnection.configure(params);
+        BookCache.configure(params);
+        FragmentCache.configure(params);
+        PasswordUtil.configure(params);
+        LoginService.configure(params);
+        LastLoginWriter.configure(params);
+        RequestExecutor.configure(params);
+        SalesAggregates.configure(params);
+        InventoryService.configure(params);
+        BookSearchIndex.getInstance().start();
+        SuggestionIndex.getInstance().start();
+    }
+    
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        RequestExecutor.shutdown();
+        SalesAggregates.shutdown();
+        InventoryService.shutdown();
+        LoginService.shutdown();
+        LastLoginWriter.shutdown();
+        SuggestionIndex.getInstance().shutdown();
+        BookSearchIndex.getInstance().shutdown();
+        DBConnection.shutdown();
+        MetricsRegistry.getInstance().unregisterMBean();
+    }
+    
+    private Properties getContextParams(ServletContext context) {
+        Properties props = new Properties();
+        Enumeration<String> names = context.getInitParameterNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            props.setProperty(name, context.getInitParameter(name));
+        }
+        return props;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.BitSet;
+
+public class InstrumentedConnection {
+    
+    private InstrumentedConnection() {
+    }
+    
+    public static Connection wrap(Connection connection) {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        if (connection == null || !registry.isEnabled()) {
+            return connection;
+        }
+        return proxy(Connection.class, new ConnectionHandler(connection, registry));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InstrumentedConnection.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private static Object identityMethod(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return null;
+        }
+    }
+    
+    private static boolean isIdentityMethod(Method method) {
+        String name = method.getName();
+        return ("equals".equals(name) && method.getParameterCount() == 1)
+                || ("hashCode".equals(name) && method.getParameterCount() == 0);
+    }
+    
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final MetricsRegistry registry;
+        
+        ConnectionHandler(Connection target, MetricsRegistry registry) {
+            this.target = target;
+            this.registry = registry;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identityMethod(proxy, method, args);
+            }
+            Object result = InstrumentedConnection.invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, new StatementHandler((Statement) result, target, registry, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement && "prepareStatement".equals(name)) {
+                return proxy(PreparedStatement.class, new StatementHandler((Statement) result, target, registry, (String) args[0]));
+            }
+            if (result instanceof Statement) {
+                return proxy(Statement.class, new StatementHandler((Statement) result, target, registry, null));
+            }
+            return result;
+        }
+    }
+    
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Connection connection;
+        private final MetricsRegistry registry;
+        private final String sql;
+        private final StatementStats preparedStats;
+        private final BitSet redacted;
+        private Object[] params;
+        
+        StatementHandler(Statement target, Connection connection, MetricsRegistry registry, String sql) {
+            this.target = target;
+            this.connection = connection;
+            this.registry = registry;
+            this.sql = sql;
+            this.preparedStats = sql != null ? registry.statement(sql) : null;
+            boolean capture = sql != null && QueryDiagnostics.getInstance().shouldCapture();
+            this.redacted = capture ? QueryDiagnostics.redactedParameters(sql) : null;
+            this.params = capture ? new Object[8] : null;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identityMethod(proxy, method, args);
+            }
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (params != null) {
+                    captureParameter(name, args);
+                }
+                return InstrumentedConnection.invoke(target, method, args);
+            }
+            
+            String statementSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            StatementStats stats = preparedStats != null && statementSql == sql
+                    ? preparedStats : registry.statement(statementSql != null ? statementSql : name);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = InstrumentedConnection.invoke(target, method, args);
+            } catch (SQLException e) {
+                stats.recordError();
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                stats.recordExecution(elapsed);
+                QueryDiagnostics.getInstance().afterExecute(connection, stats, statementSql,
+                        statementSql == sql ? params : null, redacted, elapsed);
+            }
+            
+            if (result instanceof ResultSet) {
+                return new CountingResultSet((ResultSet) result, stats);
+            }
+            if (result instanceof Integer || result instanceof Long) {
+                stats.addRows(Math.max(0, ((Number) result).longValue()));
+            } else if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    stats.addRows(Math.max(0, count));
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    stats.addRows(Math.max(0, count));
+                }
+            }
+            return result;
+        }
+        
+        private void captureParameter(String name, Object[] args) {
+            if ("clearParameters".equals(name)) {
+                params = new Object[params.length];
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0];
+                if (index >= params.length) {
+                    params = Arrays.copyOf(params, Math.max(index + 1, params.length * 2));
+                }
+                params[index] = "setNull".equals(name) ? null : args[1];
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package metrics;
+
+import com.google.gson.GsonBuilder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+public class MetricsRegistry implements MetricsRegistryMXBean {
+    public static final String ENABLED_KEY = "metricsEnabled";
+    public static final String OBJECT_NAME = "com.bookstore:type=Metrics";
+    
+    private static final int MAX_STATEMENTS = 500;
+    private static final String OTHER_STATEMENTS = "(other)";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern CASE_ARMS = Pattern.compile("(WHEN \\? THEN \\?\\s*)+");
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    
+    private final ConcurrentHashMap<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RequestStats> requests = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final LatencyHistogram poolWait = new LatencyHistogram();
+    private final LongAdder poolTimeouts = new LongAdder();
+    private volatile boolean enabled = true;
+    
+    private MetricsRegistry() {
+    }
+    
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+    
+    public void configure(Properties props) {
+        String value = props.getProperty(ENABLED_KEY);
+        enabled = value == null || value.trim().isEmpty() || Boolean.parseBoolean(value.trim());
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    public void unregisterMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    public StatementStats statement(String sql) {
+        String key = normalizeSql(sql);
+        StatementStats stats = statements.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        if (statements.size() >= MAX_STATEMENTS) {
+            key = OTHER_STATEMENTS;
+        }
+        return statements.computeIfAbsent(key, StatementStats::new);
+    }
+    
+    public RequestStats request(String name) {
+        return requests.computeIfAbsent(name, k -> new RequestStats());
+    }
+    
+    public void recordPoolWait(long nanos) {
+        poolWait.record(nanos);
+    }
+    
+    public void recordPoolTimeout() {
+        poolTimeouts.increment();
+    }
+    
+    public void registerGauge(String name, LongSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+    
+    public void removeGauge(String name) {
+        gauges.remove(name);
+    }
+    
+    public Map<String, Object> snapshot() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("wait", describe(poolWait));
+        pool.put("timeouts", poolTimeouts.sum());
+        for (Map.Entry<String, LongSupplier> gauge : new TreeMap<>(gauges).entrySet()) {
+            pool.put(gauge.getKey(), gauge.getValue().getAsLong());
+        }
+        
+        Map<String, Object> statementSnapshot = new TreeMap<>();
+        for (Map.Entry<String, StatementStats> entry : statements.entrySet()) {
+            StatementStats stats = entry.getValue();
+            Map<String, Object> values = describe(stats.getLatency());
+            values.put("rows", stats.getRows());
+            values.put("errors", stats.getErrors());
+            values.put("nPlusOneRequests", stats.getNPlusOneRequests());
+            statementSnapshot.put(entry.getKey(), values);
+        }
+        
+        Map<String, Object> requestSnapshot = new TreeMap<>();
+        for (Map.Entry<String, RequestStats> entry : requests.entrySet()) {
+            Map<String, Object> values = describe(entry.getValue().getLatency());
+            values.put("errors", entry.getValue().getErrors());
+            requestSnapshot.put(entry.getKey(), values);
+        }
+        
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timestamp", System.currentTimeMillis());
+        snapshot.put("pool", pool);
+        snapshot.put("statements", statementSnapshot);
+        snapshot.put("requests", requestSnapshot);
+        return snapshot;
+    }
+    
+    @Override
+    public Map<String, Long> getStatementP99Micros() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, StatementStats> entry : statements.entrySet()) {
+            values.put(entry.getKey(), toMicros(entry.getValue().getLatency().getPercentileNanos(99)));
+        }
+        return values;
+    }
+    
+    @Override
+    public Map<String, Long> getRequestP99Micros() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, RequestStats> entry : requests.entrySet()) {
+            values.put(entry.getKey(), toMicros(entry.getValue().getLatency().getPercentileNanos(99)));
+        }
+        return values;
+    }
+    
+    @Override
+    public long getPoolWaitP99Micros() {
+        return toMicros(poolWait.getPercentileNanos(99));
+    }
+    
+    @Override
+    public long getPoolTimeouts() {
+        return poolTimeouts.sum();
+    }
+    
+    @Override
+    public String getSnapshotJson() {
+        return new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(snapshot());
+    }
+    
+    @Override
+    public void reset() {
+        for (StatementStats stats : statements.values()) {
+            stats.reset();
+        }
+        for (RequestStats stats : requests.values()) {
+            stats.reset();
+        }
+        poolWait.reset();
+        poolTimeouts.reset();
+    }
+    
+    static String normalizeSql(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("?, ...");
+        return CASE_ARMS.matcher(normalized).replaceAll("WHEN ? THEN ? ... ");
+    }
+    
+    private static Map<String, Object> describe(LatencyHistogram histogram) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", histogram.getCount());
+        values.put("meanMicros", toMicros((long) histogram.getMeanNanos()));
+        for (double percentile : PERCENTILES) {
+            String label = percentile == Math.rint(percentile)
+                    ? String.valueOf((int) percentile) : String.valueOf(percentile).replace(".", "");
+            values.put("p" + label + "Micros", toMicros(histogram.getPercentileNanos(percentile)));
+        }
+        values.put("maxMicros", toMicros(histogram.getMaxNanos()));
+        return values;
+    }
+    
+    private static long toMicros(long nanos) {
+        return nanos / 1000;
+    }
+}
\ No newline at end of file
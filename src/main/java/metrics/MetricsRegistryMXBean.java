@@ -0,0 +1,18 @@
+package metrics;
+
+import java.util.Map;
+
+public interface MetricsRegistryMXBean {
+    
+    Map<String, Long> getStatementP99Micros();
+    
+    Map<String, Long> getRequestP99Micros();
+    
+    long getPoolWaitP99Micros();
+    
+    long getPoolTimeouts();
+    
+    String getSnapshotJson();
+    
+    void reset();
+}
\ No newline at end of file
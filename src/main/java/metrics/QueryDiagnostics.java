@@ -0,0 +1,272 @@
+package metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class QueryDiagnostics {
+    public static final String SLOW_THRESHOLD_KEY = "slowQueryThresholdMs";
+    public static final String SAMPLE_RATE_KEY = "slowQuerySampleRate";
+    public static final String EXPLAIN_KEY = "slowQueryExplain";
+    public static final String N_PLUS_ONE_THRESHOLD_KEY = "nPlusOneThreshold";
+    
+    private static final Logger logger = LoggerFactory.getLogger("bookstore.slowquery");
+    
+    private static final long DEFAULT_SLOW_THRESHOLD_MS = 500;
+    private static final double DEFAULT_SAMPLE_RATE = 0.1;
+    private static final int DEFAULT_N_PLUS_ONE_THRESHOLD = 10;
+    private static final long EXPLAIN_INTERVAL_MS = 60000;
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final int MAX_CALLER_FRAMES = 4;
+    
+    private static final Pattern ACCOUNTS_TABLE = Pattern.compile("(?i)\\baccounts\\b");
+    private static final Pattern ACCOUNTS_INSERT = Pattern.compile("(?i)^\\s*INSERT\\s+INTO\\s+accounts\\s*\\(([^)]*)\\)");
+    private static final Pattern PASSWORD_ASSIGNMENT = Pattern.compile("(?i)\\bpassword\\s*=\\s*\\?");
+    private static final String REDACTED = "<redacted>";
+    
+    private static final QueryDiagnostics INSTANCE = new QueryDiagnostics();
+    
+    private final ThreadLocal<RequestTrace> currentTrace = new ThreadLocal<>();
+    private volatile long slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_THRESHOLD_MS);
+    private volatile double sampleRate = DEFAULT_SAMPLE_RATE;
+    private volatile boolean explain;
+    private volatile int nPlusOneThreshold = DEFAULT_N_PLUS_ONE_THRESHOLD;
+    
+    private QueryDiagnostics() {
+    }
+    
+    public static QueryDiagnostics getInstance() {
+        return INSTANCE;
+    }
+    
+    public void configure(Properties props) {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(props.getProperty(SLOW_THRESHOLD_KEY, String.valueOf(DEFAULT_SLOW_THRESHOLD_MS)).trim()));
+        sampleRate = Double.parseDouble(props.getProperty(SAMPLE_RATE_KEY, String.valueOf(DEFAULT_SAMPLE_RATE)).trim());
+        explain = Boolean.parseBoolean(props.getProperty(EXPLAIN_KEY, "false").trim());
+        nPlusOneThreshold = Integer.parseInt(
+                props.getProperty(N_PLUS_ONE_THRESHOLD_KEY, String.valueOf(DEFAULT_N_PLUS_ONE_THRESHOLD)).trim());
+    }
+    
+    public RequestTrace beginRequest(String name) {
+        RequestTrace trace = new RequestTrace(name, sample());
+        currentTrace.set(trace);
+        return trace;
+    }
+    
+    public RequestTrace currentTrace() {
+        return currentTrace.get();
+    }
+    
+    public void resume(RequestTrace trace) {
+        if (trace != null) {
+            currentTrace.set(trace);
+        }
+    }
+    
+    public void suspend() {
+        currentTrace.remove();
+    }
+    
+    public void endRequest(RequestTrace trace) {
+        if (currentTrace.get() == trace) {
+            currentTrace.remove();
+        }
+        if (trace == null || !trace.sampled || nPlusOneThreshold <= 0) {
+            return;
+        }
+        for (Map.Entry<StatementStats, ShapeCount> entry : trace.shapes.entrySet()) {
+            ShapeCount shape = entry.getValue();
+            if (shape.count.get() >= nPlusOneThreshold) {
+                entry.getKey().recordNPlusOne();
+                logger.warn("Possible N+1 in {}: {} executions of [{}] from {}",
+                        trace.name, shape.count.get(), entry.getKey().getSql(), shape.caller);
+            }
+        }
+    }
+    
+    boolean shouldCapture() {
+        if (slowThresholdNanos <= 0 && nPlusOneThreshold <= 0) {
+            return false;
+        }
+        RequestTrace trace = currentTrace.get();
+        return trace != null ? trace.sampled : sample();
+    }
+    
+    void afterExecute(Connection connection, StatementStats stats, String sql, Object[] params,
+                      BitSet redacted, long nanos) {
+        RequestTrace trace = currentTrace.get();
+        if (trace != null && trace.sampled && nPlusOneThreshold > 0) {
+            trace.count(stats, nPlusOneThreshold);
+        }
+        if (slowThresholdNanos > 0 && nanos >= slowThresholdNanos) {
+            logSlowQuery(connection, stats, sql, params, redacted, nanos);
+        }
+    }
+    
+    static BitSet redactedParameters(String sql) {
+        BitSet redacted = new BitSet();
+        if (sql == null || !ACCOUNTS_TABLE.matcher(sql).find()
+                || !sql.toLowerCase(Locale.ROOT).contains("password")) {
+            return redacted;
+        }
+        Matcher insert = ACCOUNTS_INSERT.matcher(sql);
+        if (insert.find()) {
+            String[] columns = insert.group(1).split(",");
+            for (int i = 0; i < columns.length; i++) {
+                if ("password".equalsIgnoreCase(columns[i].trim())) {
+                    redacted.set(i + 1);
+                }
+            }
+        } else {
+            Matcher assignment = PASSWORD_ASSIGNMENT.matcher(sql);
+            while (assignment.find()) {
+                redacted.set(countPlaceholders(sql, assignment.end()));
+            }
+        }
+        if (redacted.isEmpty()) {
+            redacted.set(1, countPlaceholders(sql, sql.length()) + 1);
+        }
+        return redacted;
+    }
+    
+    private void logSlowQuery(Connection connection, StatementStats stats, String sql, Object[] params,
+                              BitSet redacted, long nanos) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        String plan = explain && params != null && isSelect(sql) && stats.tryExplain(EXPLAIN_INTERVAL_MS)
+                ? explain(connection, sql, params) : null;
+        logger.warn("Slow query ({} ms) from {}: [{}] params {}{}",
+                TimeUnit.NANOSECONDS.toMillis(nanos), findCaller(), sql,
+                params != null ? formatParameters(sql, params, redacted) : "(not sampled)",
+                plan != null ? "\n" + plan : "");
+    }
+    
+    private String explain(Connection connection, String sql, Object[] params) {
+        try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+            int count = parameterCount(sql, params);
+            for (int i = 1; i <= count; i++) {
+                ps.setObject(i, params[i]);
+            }
+            StringBuilder plan = new StringBuilder("EXPLAIN:");
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    plan.append("\n  ");
+                    for (int column = 1; column <= meta.getColumnCount(); column++) {
+                        Object value = rs.getObject(column);
+                        if (value != null) {
+                            plan.append(meta.getColumnLabel(column)).append('=').append(value).append(' ');
+                        }
+                    }
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+    
+    private static String formatParameters(String sql, Object[] params, BitSet redacted) {
+        StringBuilder sb = new StringBuilder("[");
+        int count = parameterCount(sql, params);
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                sb.append(", ");
+            }
+            sb.append(i).append('=');
+            Object value = params[i];
+            if (redacted.get(i)) {
+                sb.append(REDACTED);
+            } else if (value instanceof String) {
+                String text = (String) value;
+                sb.append('\'').append(text.length() > MAX_PARAMETER_LENGTH
+                        ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text).append('\'');
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.append(']').toString();
+    }
+    
+    static String findCaller() {
+        StringBuilder caller = new StringBuilder();
+        int frames = 0;
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            String className = frame.getClassName();
+            if (className.startsWith("dao.") || className.startsWith("service.") || className.startsWith("controller.")) {
+                if (frames > 0) {
+                    caller.append(" <- ");
+                }
+                caller.append(className.substring(className.indexOf('.') + 1)).append('.')
+                        .append(frame.getMethodName()).append(':').append(frame.getLineNumber());
+                if (++frames == MAX_CALLER_FRAMES) {
+                    break;
+                }
+            }
+        }
+        return frames > 0 ? caller.toString() : "unknown";
+    }
+    
+    private static boolean isSelect(String sql) {
+        return sql != null && sql.trim().regionMatches(true, 0, "SELECT", 0, 6);
+    }
+    
+    private static int parameterCount(String sql, Object[] params) {
+        return Math.min(countPlaceholders(sql, sql.length()), params.length - 1);
+    }
+    
+    private static int countPlaceholders(String sql, int end) {
+        int count = 0;
+        for (int i = 0; i < end; i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private boolean sample() {
+        double rate = sampleRate;
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+    
+    public static final class RequestTrace {
+        private final String name;
+        private final boolean sampled;
+        private final Map<StatementStats, ShapeCount> shapes = new ConcurrentHashMap<>();
+        
+        RequestTrace(String name, boolean sampled) {
+            this.name = name;
+            this.sampled = sampled;
+        }
+        
+        void count(StatementStats stats, int threshold) {
+            ShapeCount shape = shapes.computeIfAbsent(stats, key -> new ShapeCount());
+            if (shape.count.incrementAndGet() == threshold) {
+                shape.caller = findCaller();
+            }
+        }
+    }
+    
+    private static class ShapeCount {
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile String caller;
+    }
+}
\ No newline at end of file
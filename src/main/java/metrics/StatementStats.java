@@ -0,0 +1,66 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StatementStats {
+    private final String sql;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder nPlusOneRequests = new LongAdder();
+    private final AtomicLong lastExplainMillis = new AtomicLong();
+    
+    public StatementStats(String sql) {
+        this.sql = sql;
+    }
+    
+    public String getSql() {
+        return sql;
+    }
+    
+    public void recordExecution(long nanos) {
+        latency.record(nanos);
+    }
+    
+    public void addRows(long count) {
+        rows.add(count);
+    }
+    
+    public void recordError() {
+        errors.increment();
+    }
+    
+    public void recordNPlusOne() {
+        nPlusOneRequests.increment();
+    }
+    
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    
+    public long getRows() {
+        return rows.sum();
+    }
+    
+    public long getErrors() {
+        return errors.sum();
+    }
+    
+    public long getNPlusOneRequests() {
+        return nPlusOneRequests.sum();
+    }
+    
+    boolean tryExplain(long minIntervalMillis) {
+        long now = System.currentTimeMillis();
+        long last = lastExplainMillis.get();
+        return now - last >= minIntervalMillis && lastExplainMillis.compareAndSet(last, now);
+    }
+    
+    void reset() {
+        latency.reset();
+        rows.reset();
+        errors.reset();
+        nPlusOneRequests.reset();
+    }
+}
\ No newline at end of file
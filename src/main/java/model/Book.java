@@ -136,6 +136,12 @@ public class Book {
         return quantity > 0;
     }
     
+    public Book copy() {
+        return new Book(id, title, author, isbn, price, quantity, category, description, imageUrl,
+                publishedDate != null ? new Date(publishedDate.getTime()) : null,
+                createdDate != null ? (Timestamp) createdDate.clone() : null);
+    }
+    
     @Override
     public String toString() {
         return "Book{" +
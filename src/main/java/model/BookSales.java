@@ -0,0 +1,73 @@
+package model;
+
+import java.math.BigDecimal;
+
+public class BookSales {
+    private int bookId;
+    private String title;
+    private String author;
+    private int quantitySold;
+    private BigDecimal revenue;
+    
+    public BookSales() {
+        this.revenue = BigDecimal.ZERO;
+    }
+    
+    public BookSales(int bookId, int quantitySold, BigDecimal revenue) {
+        this.bookId = bookId;
+        this.quantitySold = quantitySold;
+        this.revenue = revenue != null ? revenue : BigDecimal.ZERO;
+    }
+    
+    public int getBookId() {
+        return bookId;
+    }
+    
+    public void setBookId(int bookId) {
+        this.bookId = bookId;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getAuthor() {
+        return author;
+    }
+    
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+    
+    public int getQuantitySold() {
+        return quantitySold;
+    }
+    
+    public void setQuantitySold(int quantitySold) {
+        this.quantitySold = quantitySold;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+    
+    public void add(int quantity, BigDecimal amount) {
+        quantitySold += quantity;
+        revenue = revenue.add(amount);
+    }
+    
+    public BookSales copy() {
+        BookSales copy = new BookSales(bookId, quantitySold, revenue);
+        copy.setTitle(title);
+        copy.setAuthor(author);
+        return copy;
+    }
+}
\ No newline at end of file
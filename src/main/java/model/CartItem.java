@@ -5,6 +5,7 @@ import java.math.BigDecimal;
 public class CartItem {
     private Book book;
     private int quantity;
+    private BigDecimal snapshotPrice;
     private BigDecimal subtotal;
     
     public CartItem() {
@@ -13,7 +14,6 @@ public class CartItem {
     public CartItem(Book book, int quantity) {
         this.book = book;
         this.quantity = quantity;
-        calculateSubtotal();
     }
     
     public Book getBook() {
@@ -22,7 +22,7 @@ public class CartItem {
     
     public void setBook(Book book) {
         this.book = book;
-        calculateSubtotal();
+        this.subtotal = null;
     }
     
     public int getQuantity() {
@@ -31,22 +31,38 @@ public class CartItem {
     
     public void setQuantity(int quantity) {
         this.quantity = quantity;
-        calculateSubtotal();
+        this.subtotal = null;
+    }
+    
+    public BigDecimal getSnapshotPrice() {
+        return snapshotPrice;
+    }
+    
+    public void setSnapshotPrice(BigDecimal snapshotPrice) {
+        this.snapshotPrice = snapshotPrice;
+    }
+    
+    public boolean isPriceChanged() {
+        return snapshotPrice != null && book != null && book.getPrice() != null
+                && snapshotPrice.compareTo(book.getPrice()) != 0;
     }
     
     public BigDecimal getSubtotal() {
+        if (subtotal == null) {
+            calculateSubtotal();
+        }
         return subtotal;
     }
     
     public void increaseQuantity() {
         this.quantity++;
-        calculateSubtotal();
+        this.subtotal = null;
     }
     
     public void decreaseQuantity() {
         if (this.quantity > 1) {
             this.quantity--;
-            calculateSubtotal();
+            this.subtotal = null;
         }
     }
     
@@ -61,7 +77,7 @@ public class CartItem {
         return "CartItem{" +
                 "book=" + book +
                 ", quantity=" + quantity +
-                ", subtotal=" + subtotal +
+                ", subtotal=" + getSubtotal() +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package model;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+public class DailySales {
+    private Date saleDate;
+    private int orderCount;
+    private int itemsSold;
+    private BigDecimal revenue;
+    
+    public DailySales() {
+        this.revenue = BigDecimal.ZERO;
+    }
+    
+    public DailySales(Date saleDate, int orderCount, int itemsSold, BigDecimal revenue) {
+        this.saleDate = saleDate;
+        this.orderCount = orderCount;
+        this.itemsSold = itemsSold;
+        this.revenue = revenue != null ? revenue : BigDecimal.ZERO;
+    }
+    
+    public Date getSaleDate() {
+        return saleDate;
+    }
+    
+    public void setSaleDate(Date saleDate) {
+        this.saleDate = saleDate;
+    }
+    
+    public int getOrderCount() {
+        return orderCount;
+    }
+    
+    public void setOrderCount(int orderCount) {
+        this.orderCount = orderCount;
+    }
+    
+    public int getItemsSold() {
+        return itemsSold;
+    }
+    
+    public void setItemsSold(int itemsSold) {
+        this.itemsSold = itemsSold;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+    
+    public void add(int orders, int items, BigDecimal amount) {
+        orderCount += orders;
+        itemsSold += items;
+        revenue = revenue.add(amount);
+    }
+    
+    public DailySales copy() {
+        return new DailySales(saleDate, orderCount, itemsSold, revenue);
+    }
+}
\ No newline at end of file
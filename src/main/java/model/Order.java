@@ -15,6 +15,7 @@ public class Order {
     private String paymentMethod;
     private String notes;
     private List<OrderItem> orderItems;
+    private transient ItemsLoader itemsLoader;
     
     public Order() {
         this.orderItems = new ArrayList<>();
@@ -107,20 +108,32 @@ public class Order {
     }
     
     public List<OrderItem> getOrderItems() {
+        if (itemsLoader != null) {
+            itemsLoader.load();
+        }
         return orderItems;
     }
     
     public void setOrderItems(List<OrderItem> orderItems) {
         this.orderItems = orderItems;
+        this.itemsLoader = null;
+    }
+    
+    public void setItemsLoader(ItemsLoader itemsLoader) {
+        this.itemsLoader = itemsLoader;
+    }
+    
+    public boolean isOrderItemsLoaded() {
+        return itemsLoader == null;
     }
     
     public void addOrderItem(OrderItem item) {
-        this.orderItems.add(item);
+        getOrderItems().add(item);
     }
     
     public void calculateTotal() {
         BigDecimal total = BigDecimal.ZERO;
-        for (OrderItem item : orderItems) {
+        for (OrderItem item : getOrderItems()) {
             total = total.add(item.getSubtotal());
         }
         this.totalAmount = total;
@@ -138,4 +151,8 @@ public class Order {
                 ", paymentMethod='" + paymentMethod + '\'' +
                 '}';
     }
+    
+    public interface ItemsLoader {
+        void load();
+    }
 }
\ No newline at end of file
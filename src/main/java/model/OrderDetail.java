@@ -0,0 +1,109 @@
+package model;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+public class OrderDetail {
+    private int orderId;
+    private Timestamp orderDate;
+    private String status;
+    private BigDecimal totalAmount;
+    private String customerName;
+    private String customerEmail;
+    private String bookTitle;
+    private String bookAuthor;
+    private int quantity;
+    private BigDecimal price;
+    private BigDecimal subtotal;
+    
+    public OrderDetail() {
+    }
+    
+    public int getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(int orderId) {
+        this.orderId = orderId;
+    }
+    
+    public Timestamp getOrderDate() {
+        return orderDate;
+    }
+    
+    public void setOrderDate(Timestamp orderDate) {
+        this.orderDate = orderDate;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public String getCustomerName() {
+        return customerName;
+    }
+    
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+    
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+    
+    public void setCustomerEmail(String customerEmail) {
+        this.customerEmail = customerEmail;
+    }
+    
+    public String getBookTitle() {
+        return bookTitle;
+    }
+    
+    public void setBookTitle(String bookTitle) {
+        this.bookTitle = bookTitle;
+    }
+    
+    public String getBookAuthor() {
+        return bookAuthor;
+    }
+    
+    public void setBookAuthor(String bookAuthor) {
+        this.bookAuthor = bookAuthor;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+    
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+    
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+}
\ No newline at end of file
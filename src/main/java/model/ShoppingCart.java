@@ -0,0 +1,191 @@
+package model;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+public class ShoppingCart implements Externalizable {
+    private static final long serialVersionUID = 1L;
+    private static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 4;
+    
+    private int[] bookIds;
+    private int[] quantities;
+    private long[] unitPriceCents;
+    private int size;
+    
+    public ShoppingCart() {
+        this.bookIds = new int[INITIAL_CAPACITY];
+        this.quantities = new int[INITIAL_CAPACITY];
+        this.unitPriceCents = new long[INITIAL_CAPACITY];
+    }
+    
+    public synchronized void addItem(int bookId, int quantity, BigDecimal unitPrice) {
+        if (quantity <= 0) {
+            return;
+        }
+        int index = indexOf(bookId);
+        if (index >= 0) {
+            quantities[index] += quantity;
+            unitPriceCents[index] = toCents(unitPrice);
+            return;
+        }
+        ensureCapacity(size + 1);
+        bookIds[size] = bookId;
+        quantities[size] = quantity;
+        unitPriceCents[size] = toCents(unitPrice);
+        size++;
+    }
+    
+    public synchronized void updateQuantity(int bookId, int quantity) {
+        int index = indexOf(bookId);
+        if (index < 0) {
+            return;
+        }
+        if (quantity <= 0) {
+            removeAt(index);
+        } else {
+            quantities[index] = quantity;
+        }
+    }
+    
+    public synchronized BigDecimal getUnitPrice(int bookId) {
+        int index = indexOf(bookId);
+        return index >= 0 ? BigDecimal.valueOf(unitPriceCents[index], 2) : null;
+    }
+    
+    public synchronized void removeItem(int bookId) {
+        int index = indexOf(bookId);
+        if (index >= 0) {
+            removeAt(index);
+        }
+    }
+    
+    public synchronized void clear() {
+        size = 0;
+    }
+    
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public synchronized int getItemCount() {
+        return size;
+    }
+    
+    public synchronized int getTotalQuantity() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += quantities[i];
+        }
+        return total;
+    }
+    
+    public synchronized int getQuantity(int bookId) {
+        int index = indexOf(bookId);
+        return index >= 0 ? quantities[index] : 0;
+    }
+    
+    public synchronized int[] getBookIds() {
+        return Arrays.copyOf(bookIds, size);
+    }
+    
+    public synchronized BigDecimal getSubtotal() {
+        long totalCents = 0;
+        for (int i = 0; i < size; i++) {
+            totalCents += unitPriceCents[i] * quantities[i];
+        }
+        return BigDecimal.valueOf(totalCents, 2);
+    }
+    
+    @Override
+    public synchronized void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        writeVarLong(out, size);
+        for (int i = 0; i < size; i++) {
+            writeVarLong(out, bookIds[i]);
+            writeVarLong(out, quantities[i]);
+            writeVarLong(out, unitPriceCents[i]);
+        }
+    }
+    
+    @Override
+    public synchronized void readExternal(ObjectInput in) throws IOException {
+        int version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported cart format version " + version);
+        }
+        int count = (int) readVarLong(in);
+        bookIds = new int[Math.max(count, INITIAL_CAPACITY)];
+        quantities = new int[bookIds.length];
+        unitPriceCents = new long[bookIds.length];
+        for (int i = 0; i < count; i++) {
+            bookIds[i] = (int) readVarLong(in);
+            quantities[i] = (int) readVarLong(in);
+            unitPriceCents[i] = readVarLong(in);
+        }
+        size = count;
+    }
+    
+    private int indexOf(int bookId) {
+        for (int i = 0; i < size; i++) {
+            if (bookIds[i] == bookId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void removeAt(int index) {
+        int tail = size - index - 1;
+        System.arraycopy(bookIds, index + 1, bookIds, index, tail);
+        System.arraycopy(quantities, index + 1, quantities, index, tail);
+        System.arraycopy(unitPriceCents, index + 1, unitPriceCents, index, tail);
+        size--;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity > bookIds.length) {
+            int newCapacity = Math.max(capacity, bookIds.length * 2);
+            bookIds = Arrays.copyOf(bookIds, newCapacity);
+            quantities = Arrays.copyOf(quantities, newCapacity);
+            unitPriceCents = Arrays.copyOf(unitPriceCents, newCapacity);
+        }
+    }
+    
+    private static long toCents(BigDecimal price) {
+        return price == null ? 0 : price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+    
+    private static void writeVarLong(ObjectOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+    
+    private static long readVarLong(ObjectInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed cart data");
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return "ShoppingCart{" +
+                "items=" + size +
+                ", subtotal=" + getSubtotal() +
+                '}';
+    }
+}
\ No newline at end of file
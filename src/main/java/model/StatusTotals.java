@@ -0,0 +1,52 @@
+package model;
+
+import java.math.BigDecimal;
+
+public class StatusTotals {
+    private String status;
+    private int orderCount;
+    private BigDecimal totalAmount;
+    
+    public StatusTotals() {
+        this.totalAmount = BigDecimal.ZERO;
+    }
+    
+    public StatusTotals(String status, int orderCount, BigDecimal totalAmount) {
+        this.status = status;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount != null ? totalAmount : BigDecimal.ZERO;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public int getOrderCount() {
+        return orderCount;
+    }
+    
+    public void setOrderCount(int orderCount) {
+        this.orderCount = orderCount;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public void add(int orders, BigDecimal amount) {
+        orderCount += orders;
+        totalAmount = totalAmount.add(amount);
+    }
+    
+    public StatusTotals copy() {
+        return new StatusTotals(status, orderCount, totalAmount);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,335 @@
+package service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import dao.BookDAO;
+import model.Book;
+import util.CsvReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class BookImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TITLE_LENGTH = 200;
+    private static final int MAX_AUTHOR_LENGTH = 100;
+    private static final int MAX_ISBN_LENGTH = 20;
+    private static final int MAX_CATEGORY_LENGTH = 50;
+    private static final int MAX_IMAGE_URL_LENGTH = 500;
+    
+    public enum Format {
+        CSV,
+        JSONL
+    }
+    
+    private final BookDAO bookDAO;
+    private final int chunkSize;
+    
+    public BookImporter() {
+        this(new BookDAO(), DEFAULT_CHUNK_SIZE);
+    }
+    
+    public BookImporter(BookDAO bookDAO, int chunkSize) {
+        this.bookDAO = bookDAO;
+        this.chunkSize = chunkSize;
+    }
+    
+    public static Format detectFormat(String fileName, String contentType) {
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")
+                || type.contains("ndjson") || type.contains("jsonl") || type.contains("json")) {
+            return Format.JSONL;
+        }
+        return Format.CSV;
+    }
+    
+    public ImportReport importStream(InputStream in, Format format) throws IOException {
+        ImportReport report = new ImportReport();
+        Batch batch = new Batch(report);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        try {
+            if (format == Format.JSONL) {
+                readJsonLines(reader, batch, report);
+            } else {
+                readCsv(reader, batch, report);
+            }
+            batch.flush();
+        } finally {
+            if (report.getUpserted() > 0) {
+                bookDAO.fireCatalogChanged();
+            }
+        }
+        return report;
+    }
+    
+    private void readCsv(BufferedReader reader, Batch batch, ImportReport report) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        String[] columns = new String[header.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = normalizeName(header.get(i));
+        }
+        
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            int line = csv.getRecordLine();
+            report.rowRead();
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < columns.length && i < record.size(); i++) {
+                fields.put(columns[i], record.get(i));
+            }
+            if (record.size() > columns.length) {
+                report.rowFailed(line, fields.get("isbn"), "Expected " + columns.length + " fields but found " + record.size());
+                continue;
+            }
+            addRow(batch, report, line, fields);
+        }
+    }
+    
+    private void readJsonLines(BufferedReader reader, Batch batch, ImportReport report) throws IOException {
+        String text;
+        int line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.trim().isEmpty()) {
+                continue;
+            }
+            report.rowRead();
+            Map<String, String> fields = new HashMap<>();
+            try {
+                JsonElement element = JsonParser.parseString(text);
+                if (!element.isJsonObject()) {
+                    report.rowFailed(line, null, "Expected a JSON object");
+                    continue;
+                }
+                for (Map.Entry<String, JsonElement> entry : ((JsonObject) element).entrySet()) {
+                    JsonElement value = entry.getValue();
+                    fields.put(normalizeName(entry.getKey()), value.isJsonNull() ? null : value.getAsString());
+                }
+            } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+                report.rowFailed(line, null, "Malformed JSON: " + e.getMessage());
+                continue;
+            }
+            addRow(batch, report, line, fields);
+        }
+    }
+    
+    private void addRow(Batch batch, ImportReport report, int line, Map<String, String> fields) throws IOException {
+        try {
+            batch.add(line, toBook(fields));
+        } catch (IllegalArgumentException e) {
+            report.rowFailed(line, fields.get("isbn"), e.getMessage());
+        }
+    }
+    
+    static Book toBook(Map<String, String> fields) {
+        Book book = new Book();
+        book.setTitle(required(fields, "title", MAX_TITLE_LENGTH));
+        book.setAuthor(required(fields, "author", MAX_AUTHOR_LENGTH));
+        book.setIsbn(required(fields, "isbn", MAX_ISBN_LENGTH));
+        book.setCategory(optional(fields, "category", MAX_CATEGORY_LENGTH));
+        book.setDescription(optional(fields, "description", Integer.MAX_VALUE));
+        book.setImageUrl(optional(fields, "imageurl", MAX_IMAGE_URL_LENGTH));
+        
+        String price = required(fields, "price", Integer.MAX_VALUE);
+        try {
+            BigDecimal value = new BigDecimal(price);
+            if (value.signum() < 0 || value.precision() - value.scale() > 8) {
+                throw new IllegalArgumentException("Price out of range: " + price);
+            }
+            book.setPrice(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price: " + price);
+        }
+        
+        String quantity = optional(fields, "quantity", Integer.MAX_VALUE);
+        try {
+            int value = quantity != null ? Integer.parseInt(quantity) : 0;
+            if (value < 0) {
+                throw new IllegalArgumentException("Quantity must not be negative: " + quantity);
+            }
+            book.setQuantity(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid quantity: " + quantity);
+        }
+        
+        String publishedDate = optional(fields, "publisheddate", Integer.MAX_VALUE);
+        if (publishedDate != null) {
+            try {
+                book.setPublishedDate(Date.valueOf(publishedDate));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid published_date (expected yyyy-mm-dd): " + publishedDate);
+            }
+        }
+        return book;
+    }
+    
+    private static String required(Map<String, String> fields, String name, int maxLength) {
+        String value = optional(fields, name, maxLength);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value;
+    }
+    
+    private static String optional(Map<String, String> fields, String name, int maxLength) {
+        String value = fields.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        value = value.trim();
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(name + " longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+    
+    private static String normalizeName(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+    
+    private class Batch {
+        private final ImportReport report;
+        private final List<Book> books = new ArrayList<>(chunkSize);
+        private final List<Integer> lines = new ArrayList<>(chunkSize);
+        
+        Batch(ImportReport report) {
+            this.report = report;
+        }
+        
+        void add(int line, Book book) throws IOException {
+            books.add(book);
+            lines.add(line);
+            if (books.size() >= chunkSize) {
+                flush();
+            }
+        }
+        
+        void flush() throws IOException {
+            if (books.isEmpty()) {
+                return;
+            }
+            try {
+                report.chunkWritten(books.size(), bookDAO.upsertByIsbn(books));
+            } catch (SQLException e) {
+                writeRowByRow();
+            } finally {
+                books.clear();
+                lines.clear();
+            }
+        }
+        
+        private void writeRowByRow() throws IOException {
+            for (int i = 0; i < books.size(); i++) {
+                Book book = books.get(i);
+                try {
+                    report.chunkWritten(1, bookDAO.upsertByIsbn(books.subList(i, i + 1)));
+                } catch (SQLException e) {
+                    if (isConnectionFailure(e)) {
+                        throw new IOException("Database unavailable during import", e);
+                    }
+                    report.rowFailed(lines.get(i), book.getIsbn(), e.getMessage());
+                }
+            }
+        }
+        
+        private boolean isConnectionFailure(SQLException e) {
+            String state = e.getSQLState();
+            return state != null && state.startsWith("08");
+        }
+    }
+    
+    public static class ImportReport {
+        private long rowsRead;
+        private long upserted;
+        private long affectedRows;
+        private long failed;
+        private final List<RowError> errors = new ArrayList<>();
+        
+        void rowRead() {
+            rowsRead++;
+        }
+        
+        void chunkWritten(int rows, int affected) {
+            upserted += rows;
+            affectedRows += affected;
+        }
+        
+        void rowFailed(int line, String isbn, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, isbn, message));
+            }
+        }
+        
+        public long getRowsRead() {
+            return rowsRead;
+        }
+        
+        public long getUpserted() {
+            return upserted;
+        }
+        
+        public long getAffectedRows() {
+            return affectedRows;
+        }
+        
+        public long getFailed() {
+            return failed;
+        }
+        
+        public List<RowError> getErrors() {
+            return errors;
+        }
+    }
+    
+    public static class RowError {
+        private final int line;
+        private final String isbn;
+        private final String message;
+        
+        RowError(int line, String isbn, String message) {
+            this.line = line;
+            this.isbn = isbn;
+            this.message = message;
+        }
+        
+        public int getLine() {
+            return line;
+        }
+        
+        public String getIsbn() {
+            return isbn;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
\ No newline at end of file
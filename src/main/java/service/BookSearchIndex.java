@@ -0,0 +1,314 @@
+package service;
+
+import dao.BookDAO;
+import dao.CatalogListener;
+import model.Book;
+
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+public class BookSearchIndex implements CatalogListener {
+    private static final float TITLE_WEIGHT = 5f;
+    private static final float AUTHOR_WEIGHT = 3f;
+    private static final float ISBN_WEIGHT = 8f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final int MAX_PREFIX_TERMS = 256;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    
+    private static volatile BookSearchIndex instance;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService indexer;
+    private TreeMap<String, Postings> terms = new TreeMap<>();
+    private Map<Integer, String[]> docTerms = new HashMap<>();
+    private volatile boolean ready;
+    
+    private BookSearchIndex() {
+        this.indexer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "book-search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public static BookSearchIndex getInstance() {
+        if (instance == null) {
+            synchronized (BookSearchIndex.class) {
+                if (instance == null) {
+                    instance = new BookSearchIndex();
+                }
+            }
+        }
+        return instance;
+    }
+    
+    public void start() {
+        BookDAO.addCatalogListener(this);
+        indexer.execute(this::rebuildQuietly);
+    }
+    
+    public void shutdown() {
+        BookDAO.removeCatalogListener(this);
+        indexer.shutdownNow();
+        try {
+            indexer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    @Override
+    public void bookChanged(int bookId) {
+        if (bookId == ALL_BOOKS) {
+            indexer.execute(this::rebuildQuietly);
+        } else {
+            indexer.execute(() -> reindexQuietly(bookId));
+        }
+    }
+    
+    public void rebuild() throws SQLException {
+        TreeMap<String, Postings> newTerms = new TreeMap<>();
+        Map<Integer, String[]> newDocTerms = new HashMap<>();
+        new BookDAO().forEach(book -> addDocument(newTerms, newDocTerms, book));
+        
+        lock.writeLock().lock();
+        try {
+            terms = newTerms;
+            docTerms = newDocTerms;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void reindex(int bookId) throws SQLException {
+        Book book = new BookDAO().findById(bookId);
+        lock.writeLock().lock();
+        try {
+            removeDocument(bookId);
+            if (book != null) {
+                addDocument(terms, docTerms, book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public List<Integer> search(String query, int limit) {
+        String[] queryTerms = tokenize(query);
+        if (queryTerms.length == 0) {
+            return Collections.emptyList();
+        }
+        
+        lock.readLock().lock();
+        try {
+            Map<Integer, Float> scores = null;
+            for (String term : queryTerms) {
+                Map<Integer, Float> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return topDocuments(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+    
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        String normalized = normalize(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+    
+    private Map<Integer, Float> scoreTerm(String term) {
+        Map<Integer, Float> scores = new HashMap<>();
+        Postings exact = terms.get(term);
+        if (exact != null) {
+            exact.addTo(scores, 1f);
+        }
+        
+        SortedMap<String, Postings> prefixed = terms.subMap(term + Character.MIN_VALUE, term + Character.MAX_VALUE);
+        int expanded = 0;
+        for (Postings postings : prefixed.values()) {
+            if (++expanded > MAX_PREFIX_TERMS) {
+                break;
+            }
+            postings.addTo(scores, PREFIX_MATCH_FACTOR);
+        }
+        return scores;
+    }
+    
+    private List<Integer> topDocuments(Map<Integer, Float> scores, int limit) {
+        PriorityQueue<Map.Entry<Integer, Float>> top = new PriorityQueue<>(limit + 1, (a, b) -> {
+            int byScore = Float.compare(a.getValue(), b.getValue());
+            return byScore != 0 ? byScore : Integer.compare(a.getKey(), b.getKey());
+        });
+        for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        
+        Integer[] ids = new Integer[top.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = top.poll().getKey();
+        }
+        return Arrays.asList(ids);
+    }
+    
+    private void addDocument(TreeMap<String, Postings> index, Map<Integer, String[]> documents, Book book) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, book.getTitle(), TITLE_WEIGHT);
+        addField(weights, book.getAuthor(), AUTHOR_WEIGHT);
+        addField(weights, book.getCategory(), CATEGORY_WEIGHT);
+        addField(weights, book.getDescription(), DESCRIPTION_WEIGHT);
+        if (book.getIsbn() != null) {
+            addField(weights, book.getIsbn(), ISBN_WEIGHT);
+            addField(weights, book.getIsbn().replace("-", ""), ISBN_WEIGHT);
+        }
+        
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            Postings postings = index.get(entry.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                index.put(entry.getKey(), postings);
+            }
+            postings.add(book.getId(), entry.getValue());
+        }
+        documents.put(book.getId(), weights.keySet().toArray(new String[0]));
+    }
+    
+    private void addField(Map<String, Float> weights, String value, float weight) {
+        for (String token : tokenize(value)) {
+            Float current = weights.get(token);
+            weights.put(token, current == null ? weight : current + weight);
+        }
+    }
+    
+    private void removeDocument(int bookId) {
+        String[] previous = docTerms.remove(bookId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(bookId) && postings.isEmpty()) {
+                terms.remove(term);
+            }
+        }
+    }
+    
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void reindexQuietly(int bookId) {
+        try {
+            reindex(bookId);
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private static class Postings {
+        private int[] docIds = new int[2];
+        private float[] weights = new float[2];
+        private int size;
+        
+        void add(int docId, float weight) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docIds[size] = docId;
+            weights[size] = weight;
+            size++;
+        }
+        
+        boolean remove(int docId) {
+            for (int i = 0; i < size; i++) {
+                if (docIds[i] == docId) {
+                    size--;
+                    docIds[i] = docIds[size];
+                    weights[i] = weights[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        boolean isEmpty() {
+            return size == 0;
+        }
+        
+        void addTo(Map<Integer, Float> scores, float factor) {
+            for (int i = 0; i < size; i++) {
+                Float current = scores.get(docIds[i]);
+                float score = weights[i] * factor;
+                scores.put(docIds[i], current == null ? score : current + score);
+            }
+        }
+    }
+}
\ No newline at end of file
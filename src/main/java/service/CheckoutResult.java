@@ -0,0 +1,76 @@
+package service;
+
+import model.Order;
+
+import java.util.Collections;
+import java.util.List;
+
+public class CheckoutResult {
+    private final Order order;
+    private final List<StockFailure> stockFailures;
+    private final String error;
+    
+    private CheckoutResult(Order order, List<StockFailure> stockFailures, String error) {
+        this.order = order;
+        this.stockFailures = stockFailures;
+        this.error = error;
+    }
+    
+    public static CheckoutResult success(Order order) {
+        return new CheckoutResult(order, Collections.<StockFailure>emptyList(), null);
+    }
+    
+    public static CheckoutResult outOfStock(List<StockFailure> stockFailures) {
+        return new CheckoutResult(null, stockFailures, "Some items are no longer available in the requested quantity");
+    }
+    
+    public static CheckoutResult failed(String error) {
+        return new CheckoutResult(null, Collections.<StockFailure>emptyList(), error);
+    }
+    
+    public boolean isSuccess() {
+        return order != null;
+    }
+    
+    public Order getOrder() {
+        return order;
+    }
+    
+    public List<StockFailure> getStockFailures() {
+        return stockFailures;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public static class StockFailure {
+        private final int bookId;
+        private final String title;
+        private final int requested;
+        private final int available;
+        
+        public StockFailure(int bookId, String title, int requested, int available) {
+            this.bookId = bookId;
+            this.title = title;
+            this.requested = requested;
+            this.available = available;
+        }
+        
+        public int getBookId() {
+            return bookId;
+        }
+        
+        public String getTitle() {
+            return title;
+        }
+        
+        public int getRequested() {
+            return requested;
+        }
+        
+        public int getAvailable() {
+            return available;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package service;
+
+import dao.BookDAO;
+import dao.OrderDAO;
+import model.Book;
+import model.CartItem;
+import model.Order;
+import model.OrderItem;
+import model.ShoppingCart;
+import util.TransactionManager;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CheckoutService {
+    private final BookDAO bookDAO;
+    private final OrderDAO orderDAO;
+    
+    public CheckoutService() {
+        this(new BookDAO(), new OrderDAO());
+    }
+    
+    public CheckoutService(BookDAO bookDAO, OrderDAO orderDAO) {
+        this.bookDAO = bookDAO;
+        this.orderDAO = orderDAO;
+    }
+    
+    public CheckoutResult checkout(int customerId, List<CartItem> cartItems, String shippingAddress,
+                                   String paymentMethod, String notes) throws SQLException {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (CartItem item : cartItems) {
+            if (item.getBook() != null && item.getQuantity() > 0) {
+                quantities.merge(item.getBook().getId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        return checkout(customerId, quantities, shippingAddress, paymentMethod, notes);
+    }
+    
+    public CheckoutResult checkout(int customerId, ShoppingCart cart, String shippingAddress,
+                                   String paymentMethod, String notes) throws SQLException {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (int bookId : cart.getBookIds()) {
+            int quantity = cart.getQuantity(bookId);
+            if (quantity > 0) {
+                quantities.put(bookId, quantity);
+            }
+        }
+        return checkout(customerId, quantities, shippingAddress, paymentMethod, notes);
+    }
+    
+    private CheckoutResult checkout(int customerId, Map<Integer, Integer> quantities, String shippingAddress,
+                                    String paymentMethod, String notes) throws SQLException {
+        if (quantities.isEmpty()) {
+            return CheckoutResult.failed("Your cart is empty");
+        }
+        InventoryService inventory = InventoryService.getInstance();
+        if (inventory != null) {
+            return checkoutReserved(inventory, customerId, quantities, shippingAddress, paymentMethod, notes);
+        }
+        
+        return TransactionManager.execute(Connection.TRANSACTION_READ_COMMITTED, () -> {
+            Map<Integer, Book> stock = bookDAO.lockForUpdate(quantities.keySet());
+            
+            List<CheckoutResult.StockFailure> failures = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> line : quantities.entrySet()) {
+                Book book = stock.get(line.getKey());
+                int available = book != null ? book.getQuantity() : 0;
+                if (available < line.getValue()) {
+                    String title = book != null ? book.getTitle() : "Book #" + line.getKey();
+                    failures.add(new CheckoutResult.StockFailure(line.getKey(), title, line.getValue(), available));
+                }
+            }
+            if (!failures.isEmpty()) {
+                TransactionManager.setRollbackOnly();
+                return CheckoutResult.outOfStock(failures);
+            }
+            
+            if (!bookDAO.decreaseQuantities(quantities)) {
+                TransactionManager.setRollbackOnly();
+                return CheckoutResult.failed("Stock changed while placing the order, please try again");
+            }
+            
+            Order order = new Order(customerId, null, shippingAddress, paymentMethod);
+            order.setNotes(notes);
+            for (Map.Entry<Integer, Integer> line : quantities.entrySet()) {
+                Book book = stock.get(line.getKey());
+                order.addOrderItem(new OrderItem(book.getId(), line.getValue(), book.getPrice()));
+            }
+            order.calculateTotal();
+            
+            if (!orderDAO.insert(order)) {
+                TransactionManager.setRollbackOnly();
+                return CheckoutResult.failed("Failed to create order");
+            }
+            return CheckoutResult.success(order);
+        });
+    }
+    
+    private CheckoutResult checkoutReserved(InventoryService inventory, int customerId, Map<Integer, Integer> quantities,
+                                            String shippingAddress, String paymentMethod, String notes)
+            throws SQLException {
+        Map<Integer, Book> books = new HashMap<>();
+        for (Book book : bookDAO.findByIds(new ArrayList<>(quantities.keySet()))) {
+            books.put(book.getId(), book);
+        }
+        
+        InventoryService.Reservation reservation;
+        try {
+            reservation = inventory.reserve(quantities);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return CheckoutResult.failed("Unable to reserve stock right now, please try again");
+        }
+        if (!reservation.isReserved()) {
+            List<CheckoutResult.StockFailure> failures = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> shortage : reservation.getShortages().entrySet()) {
+                Book book = books.get(shortage.getKey());
+                String title = book != null ? book.getTitle() : "Book #" + shortage.getKey();
+                failures.add(new CheckoutResult.StockFailure(shortage.getKey(), title,
+                        quantities.get(shortage.getKey()), shortage.getValue()));
+            }
+            return CheckoutResult.outOfStock(failures);
+        }
+        
+        boolean placed = false;
+        try {
+            Order order = new Order(customerId, null, shippingAddress, paymentMethod);
+            order.setNotes(notes);
+            for (Map.Entry<Integer, Integer> line : quantities.entrySet()) {
+                Book book = books.get(line.getKey());
+                if (book == null) {
+                    return CheckoutResult.failed("Book #" + line.getKey() + " is no longer available");
+                }
+                order.addOrderItem(new OrderItem(book.getId(), line.getValue(), book.getPrice()));
+            }
+            order.calculateTotal();
+            
+            placed = TransactionManager.execute(Connection.TRANSACTION_READ_COMMITTED, () -> orderDAO.insert(order));
+            return placed ? CheckoutResult.success(order) : CheckoutResult.failed("Failed to create order");
+        } finally {
+            if (!placed) {
+                inventory.release(reservation);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package service;
+
+import dao.BookDAO;
+import dao.CatalogListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Properties;
+
+public class FragmentCache implements CatalogListener {
+    public static final String MAX_BYTES_KEY = "fragmentCacheMaxBytes";
+    
+    private static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    private static final int MAX_ENTRY_FRACTION = 8;
+    
+    private static volatile FragmentCache instance;
+    
+    private final LinkedHashMap<String, String> fragments = new LinkedHashMap<>(64, 0.75f, true);
+    private final long maxBytes;
+    private long totalBytes;
+    private long hits;
+    private long misses;
+    
+    private FragmentCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+    
+    public static synchronized void configure(Properties props) {
+        FragmentCache previous = instance;
+        String value = props.getProperty(MAX_BYTES_KEY);
+        long maxBytes = value != null && !value.trim().isEmpty() ? Long.parseLong(value.trim()) : DEFAULT_MAX_BYTES;
+        instance = new FragmentCache(maxBytes);
+        BookDAO.addCatalogListener(instance);
+        if (previous != null) {
+            BookDAO.removeCatalogListener(previous);
+        }
+    }
+    
+    public static FragmentCache getInstance() {
+        FragmentCache cache = instance;
+        if (cache == null) {
+            synchronized (FragmentCache.class) {
+                if (instance == null) {
+                    configure(new Properties());
+                }
+                cache = instance;
+            }
+        }
+        return cache;
+    }
+    
+    public synchronized String get(String key) {
+        String fragment = fragments.get(key);
+        if (fragment == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return fragment;
+    }
+    
+    public void put(String key, String html) {
+        if (sizeOf(html) > maxBytes / MAX_ENTRY_FRACTION) {
+            return;
+        }
+        synchronized (this) {
+            String previous = fragments.put(key, html);
+            if (previous != null) {
+                totalBytes -= sizeOf(previous);
+            }
+            totalBytes += sizeOf(html);
+            Iterator<String> eldest = fragments.values().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= sizeOf(eldest.next());
+                eldest.remove();
+            }
+        }
+    }
+    
+    @Override
+    public synchronized void bookChanged(int bookId) {
+        fragments.clear();
+        totalBytes = 0;
+    }
+    
+    public synchronized int size() {
+        return fragments.size();
+    }
+    
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+    
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    private static long sizeOf(String html) {
+        return (long) html.length() * Character.BYTES;
+    }
+}
\ No newline at end of file
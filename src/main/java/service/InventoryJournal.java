@@ -0,0 +1,257 @@
+package service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+class InventoryJournal {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryJournal.class);
+    private static final String PREFIX = "inventory-";
+    private static final String SUFFIX = ".journal";
+    private static final int RECORD_SIZE = 20;
+    private static final long MAX_SEGMENT_BYTES = 16L * 1024 * 1024;
+    
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * RECORD_SIZE);
+    private ByteBuffer spare = ByteBuffer.allocate(64 * RECORD_SIZE);
+    private Map<Integer, Integer> unflushed = new HashMap<>();
+    private FileChannel channel;
+    private long lastSeq;
+    private long durableSeq;
+    private boolean syncing;
+    
+    InventoryJournal(Path directory) {
+        this.directory = directory;
+    }
+    
+    List<Entry> open(long checkpointSeq) throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())), file);
+            }
+        }
+        
+        List<Entry> entries = new ArrayList<>();
+        long seq = checkpointSeq;
+        for (Path segment : segments.values()) {
+            seq = Math.max(seq, readSegment(segment, checkpointSeq, entries));
+        }
+        lastSeq = seq;
+        durableSeq = seq;
+        openSegment(seq + 1);
+        return entries;
+    }
+    
+    long append(int bookId, int delta) {
+        lock.lock();
+        try {
+            long seq = ++lastSeq;
+            if (buffer.remaining() < RECORD_SIZE) {
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            CRC32 crc = new CRC32();
+            int start = buffer.position();
+            buffer.putLong(seq).putInt(bookId).putInt(delta);
+            crc.update(buffer.array(), start, 16);
+            buffer.putInt((int) crc.getValue());
+            unflushed.merge(bookId, delta, Integer::sum);
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void sync(long seq) throws IOException {
+        lock.lock();
+        try {
+            while (durableSeq < seq) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                ByteBuffer batch = buffer;
+                buffer = spare;
+                spare = batch;
+                long batchSeq = lastSeq;
+                boolean written = false;
+                lock.unlock();
+                long position = channel.size();
+                try {
+                    batch.flip();
+                    while (batch.hasRemaining()) {
+                        channel.write(batch);
+                    }
+                    channel.force(false);
+                    written = true;
+                } finally {
+                    batch.clear();
+                    if (!written) {
+                        discardTornWrite(position);
+                    }
+                    lock.lock();
+                    syncing = false;
+                    if (written) {
+                        durableSeq = batchSeq;
+                        if (channel.size() >= MAX_SEGMENT_BYTES) {
+                            channel.close();
+                            openSegment(batchSeq + 1);
+                        }
+                    }
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    Checkpoint drainUnflushed() {
+        lock.lock();
+        try {
+            Checkpoint checkpoint = new Checkpoint(unflushed, lastSeq);
+            unflushed = new HashMap<>();
+            return checkpoint;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void restore(Checkpoint checkpoint) {
+        lock.lock();
+        try {
+            for (Map.Entry<Integer, Integer> delta : checkpoint.deltas.entrySet()) {
+                unflushed.merge(delta.getKey(), delta.getValue(), Integer::sum);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void truncate(long checkpointSeq) {
+        lock.lock();
+        try {
+            List<Long> starts = new ArrayList<>(segments.keySet());
+            for (int i = 0; i < starts.size() - 1; i++) {
+                if (starts.get(i + 1) - 1 > checkpointSeq) {
+                    break;
+                }
+                Path segment = segments.remove(starts.get(i));
+                try {
+                    Files.deleteIfExists(segment);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete inventory journal segment {}", segment, e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void close() throws IOException {
+        long seq;
+        lock.lock();
+        try {
+            seq = lastSeq;
+        } finally {
+            lock.unlock();
+        }
+        sync(seq);
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void discardTornWrite(long position) {
+        try {
+            channel.truncate(position);
+        } catch (IOException e) {
+            logger.warn("Failed to discard a partial inventory journal write", e);
+        }
+    }
+    
+    private void openSegment(long firstSeq) throws IOException {
+        Path file = directory.resolve(PREFIX + String.format("%020d", firstSeq) + SUFFIX);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segments.put(firstSeq, file);
+    }
+    
+    private long readSegment(Path segment, long checkpointSeq, List<Entry> entries) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+        CRC32 crc = new CRC32();
+        long seq = 0;
+        while (data.remaining() >= RECORD_SIZE) {
+            crc.reset();
+            crc.update(data.array(), data.position(), 16);
+            long recordSeq = data.getLong();
+            int bookId = data.getInt();
+            int delta = data.getInt();
+            if (data.getInt() != (int) crc.getValue()) {
+                data.position(data.position() - RECORD_SIZE);
+                break;
+            }
+            seq = recordSeq;
+            if (recordSeq > checkpointSeq) {
+                entries.add(new Entry(recordSeq, bookId, delta));
+            }
+        }
+        if (data.hasRemaining()) {
+            logger.warn("Truncating torn tail of inventory journal segment {} at byte {}", segment, data.position());
+            try (FileChannel out = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                out.truncate(data.position());
+            }
+        }
+        return seq;
+    }
+    
+    static class Entry {
+        final long seq;
+        final int bookId;
+        final int delta;
+        
+        Entry(long seq, int bookId, int delta) {
+            this.seq = seq;
+            this.bookId = bookId;
+            this.delta = delta;
+        }
+    }
+    
+    static class Checkpoint {
+        final Map<Integer, Integer> deltas;
+        final long seq;
+        
+        Checkpoint(Map<Integer, Integer> deltas, long seq) {
+            this.deltas = Collections.unmodifiableMap(deltas);
+            this.seq = seq;
+        }
+    }
+}
\ No newline at end of file
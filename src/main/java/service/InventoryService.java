@@ -0,0 +1,297 @@
+package service;
+
+import dao.BookDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.StripedCounter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class InventoryService {
+    public static final String MODE_KEY = "inventoryMode";
+    public static final String STRIPES_KEY = "inventoryStripes";
+    public static final String JOURNAL_DIR_KEY = "inventoryJournalDir";
+    public static final String FLUSH_INTERVAL_KEY = "inventoryFlushIntervalMs";
+    public static final String RECONCILE_INTERVAL_KEY = "inventoryReconcileIntervalMs";
+    public static final String DATABASE = "database";
+    public static final String MEMORY = "memory";
+    
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+    private static final int DEFAULT_STRIPES = 8;
+    private static final long DEFAULT_FLUSH_INTERVAL_MS = 200;
+    private static final long DEFAULT_RECONCILE_INTERVAL_MS = 30000;
+    
+    private static volatile InventoryService instance;
+    
+    private final ConcurrentHashMap<Integer, Stock> stock = new ConcurrentHashMap<>();
+    private final BookDAO bookDAO;
+    private final InventoryJournal journal;
+    private final ScheduledExecutorService scheduler;
+    private final int stripes;
+    
+    InventoryService(BookDAO bookDAO, Path journalDir, int stripes, long flushIntervalMillis,
+                     long reconcileIntervalMillis) throws IOException, SQLException {
+        this.bookDAO = bookDAO;
+        this.stripes = stripes;
+        this.journal = new InventoryJournal(journalDir);
+        recover();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileIntervalMillis, reconcileIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+    
+    public static synchronized void configure(Properties props) {
+        shutdown();
+        String mode = props.getProperty(MODE_KEY, DATABASE).trim();
+        if (!MEMORY.equalsIgnoreCase(mode)) {
+            return;
+        }
+        try {
+            instance = new InventoryService(new BookDAO(), journalDir(props),
+                    (int) getLong(props, STRIPES_KEY, DEFAULT_STRIPES),
+                    getLong(props, FLUSH_INTERVAL_KEY, DEFAULT_FLUSH_INTERVAL_MS),
+                    getLong(props, RECONCILE_INTERVAL_KEY, DEFAULT_RECONCILE_INTERVAL_MS));
+            logger.info("In-memory inventory enabled with journal in {}", journalDir(props));
+        } catch (IOException | SQLException e) {
+            logger.error("Failed to recover the inventory journal; falling back to database inventory", e);
+        }
+    }
+    
+    public static InventoryService getInstance() {
+        return instance;
+    }
+    
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+    
+    public Reservation reserve(Map<Integer, Integer> quantities) throws SQLException, IOException {
+        Map<Integer, Integer> ordered = new TreeMap<>(quantities);
+        Map<Integer, Stock> counters = load(ordered.keySet());
+        Map<Integer, Integer> reserved = new LinkedHashMap<>();
+        Map<Integer, Integer> shortages = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Integer> line : ordered.entrySet()) {
+            Stock item = counters.get(line.getKey());
+            if (item != null && item.available.tryAcquire(line.getValue())) {
+                reserved.put(line.getKey(), line.getValue());
+            } else {
+                shortages.put(line.getKey(), item != null ? (int) item.available.sum() : 0);
+            }
+        }
+        if (!shortages.isEmpty()) {
+            for (Map.Entry<Integer, Integer> line : reserved.entrySet()) {
+                counters.get(line.getKey()).available.add(line.getValue());
+            }
+            return new Reservation(Collections.<Integer, Integer>emptyMap(), shortages);
+        }
+        
+        long seq = 0;
+        for (Map.Entry<Integer, Integer> line : reserved.entrySet()) {
+            seq = journal.append(line.getKey(), -line.getValue());
+        }
+        try {
+            journal.sync(seq);
+        } catch (IOException e) {
+            release(new Reservation(reserved, shortages));
+            throw e;
+        }
+        return new Reservation(reserved, shortages);
+    }
+    
+    public void release(Reservation reservation) {
+        for (Map.Entry<Integer, Integer> line : reservation.getQuantities().entrySet()) {
+            Stock item = stock.get(line.getKey());
+            if (item != null) {
+                item.available.add(line.getValue());
+                journal.append(line.getKey(), line.getValue());
+            }
+        }
+    }
+    
+    public void flush() throws SQLException {
+        InventoryJournal.Checkpoint checkpoint = journal.drainUnflushed();
+        if (checkpoint.deltas.isEmpty()) {
+            return;
+        }
+        try {
+            bookDAO.applyInventoryDeltas(checkpoint.deltas, checkpoint.seq);
+        } catch (SQLException | RuntimeException e) {
+            journal.restore(checkpoint);
+            throw e;
+        }
+        for (Map.Entry<Integer, Integer> delta : checkpoint.deltas.entrySet()) {
+            Stock item = stock.get(delta.getKey());
+            if (item != null) {
+                item.expectedQuantity += delta.getValue();
+            }
+        }
+        journal.truncate(checkpoint.seq);
+    }
+    
+    public void reconcile() throws SQLException {
+        flush();
+        List<Integer> ids = new ArrayList<>(stock.keySet());
+        for (int from = 0; from < ids.size(); from += 500) {
+            List<Integer> batch = ids.subList(from, Math.min(from + 500, ids.size()));
+            Map<Integer, Integer> quantities = bookDAO.findQuantities(batch);
+            for (Integer id : batch) {
+                Stock item = stock.get(id);
+                Integer actual = quantities.get(id);
+                if (actual == null) {
+                    stock.remove(id);
+                    continue;
+                }
+                long drift = actual - item.expectedQuantity;
+                if (drift == 0) {
+                    continue;
+                }
+                logger.info("Book {} stock changed outside the inventory service by {}", id, drift);
+                item.expectedQuantity = actual;
+                long payable = Math.min(item.debt, Math.max(drift, 0));
+                item.debt -= payable;
+                long applied = item.available.adjust(drift - payable);
+                item.debt += applied - (drift - payable);
+            }
+        }
+    }
+    
+    private void recover() throws IOException, SQLException {
+        long checkpoint = bookDAO.getInventoryCheckpoint();
+        List<InventoryJournal.Entry> entries = journal.open(checkpoint);
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> deltas = new HashMap<>();
+        long seq = checkpoint;
+        for (InventoryJournal.Entry entry : entries) {
+            deltas.merge(entry.bookId, entry.delta, Integer::sum);
+            seq = Math.max(seq, entry.seq);
+        }
+        logger.info("Replaying {} inventory journal entries after checkpoint {}", entries.size(), checkpoint);
+        bookDAO.applyInventoryDeltas(deltas, seq);
+        journal.truncate(seq);
+    }
+    
+    private Map<Integer, Stock> load(Iterable<Integer> ids) throws SQLException {
+        Map<Integer, Stock> counters = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            Stock item = stock.get(id);
+            if (item != null) {
+                counters.put(id, item);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Map.Entry<Integer, Integer> quantity : bookDAO.findQuantities(missing).entrySet()) {
+                Stock loaded = new Stock(new StripedCounter(stripes, quantity.getValue()), quantity.getValue());
+                Stock existing = stock.putIfAbsent(quantity.getKey(), loaded);
+                counters.put(quantity.getKey(), existing != null ? existing : loaded);
+            }
+        }
+        return counters;
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        flushQuietly();
+    }
+    
+    private static Path journalDir(Properties props) {
+        String dir = props.getProperty(JOURNAL_DIR_KEY);
+        if (dir != null && !dir.trim().isEmpty()) {
+            return Paths.get(dir.trim());
+        }
+        String base = System.getProperty("catalina.base");
+        return base != null ? Paths.get(base, "work", "inventory-journal")
+                : Paths.get(System.getProperty("java.io.tmpdir"), "bookstore-inventory-journal");
+    }
+    
+    private static long getLong(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        return value != null && !value.trim().isEmpty() ? Long.parseLong(value.trim()) : defaultValue;
+    }
+    
+    private static class Stock {
+        private final StripedCounter available;
+        private long expectedQuantity;
+        private long debt;
+        
+        Stock(StripedCounter available, long expectedQuantity) {
+            this.available = available;
+            this.expectedQuantity = expectedQuantity;
+        }
+    }
+    
+    public static class Reservation {
+        private final Map<Integer, Integer> quantities;
+        private final Map<Integer, Integer> shortages;
+        
+        Reservation(Map<Integer, Integer> quantities, Map<Integer, Integer> shortages) {
+            this.quantities = quantities;
+            this.shortages = shortages;
+        }
+        
+        public boolean isReserved() {
+            return shortages.isEmpty();
+        }
+        
+        public Map<Integer, Integer> getQuantities() {
+            return quantities;
+        }
+        
+        public Map<Integer, Integer> getShortages() {
+            return shortages;
+        }
+    }
+}
\ No newline at end of file
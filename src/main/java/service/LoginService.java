@@ -0,0 +1,134 @@
+package service;
+
+import dao.AccountDAO;
+import model.Account;
+import util.PasswordUtil;
+
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoginService {
+    public static final String VERIFY_THREADS_KEY = "loginVerifyThreads";
+    public static final String VERIFY_QUEUE_KEY = "loginVerifyQueue";
+    public static final String VERIFY_TIMEOUT_KEY = "loginVerifyTimeoutMs";
+    
+    private static final int DEFAULT_QUEUE = 64;
+    private static final long DEFAULT_TIMEOUT_MS = 5000;
+    
+    private static volatile LoginService instance;
+    
+    private final AccountDAO accountDAO;
+    private final ThreadPoolExecutor verifier;
+    private final long timeoutMillis;
+    private final String dummyHash;
+    
+    LoginService(AccountDAO accountDAO, int threads, int queueSize, long timeoutMillis) {
+        this.accountDAO = accountDAO;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger counter = new AtomicInteger();
+        this.verifier = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread thread = new Thread(r, "login-verifier-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = PasswordUtil.hashPassword("dummy-password-for-unknown-users");
+    }
+    
+    public static synchronized void configure(Properties props) {
+        LoginService previous = instance;
+        int defaultThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        instance = new LoginService(new AccountDAO(),
+                getInt(props, VERIFY_THREADS_KEY, defaultThreads),
+                getInt(props, VERIFY_QUEUE_KEY, DEFAULT_QUEUE),
+                getInt(props, VERIFY_TIMEOUT_KEY, (int) DEFAULT_TIMEOUT_MS));
+        if (previous != null) {
+            previous.verifier.shutdown();
+        }
+    }
+    
+    public static LoginService getInstance() {
+        LoginService service = instance;
+        if (service == null) {
+            synchronized (LoginService.class) {
+                if (instance == null) {
+                    configure(new Properties());
+                }
+                service = instance;
+            }
+        }
+        return service;
+    }
+    
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.verifier.shutdownNow();
+            instance = null;
+        }
+    }
+    
+    public Account authenticate(String username, String password) throws SQLException {
+        if (username == null || password == null) {
+            return null;
+        }
+        Account account = accountDAO.findByUsername(username);
+        boolean usable = account != null && account.isActive();
+        String storedHash = usable ? account.getPassword() : dummyHash;
+        
+        String currentHash = await(() -> verifyAndUpgrade(password, storedHash));
+        if (currentHash == null || !usable) {
+            return null;
+        }
+        accountDAO.completeLogin(account, currentHash);
+        return account;
+    }
+    
+    public String hashPassword(String password) {
+        return await(() -> PasswordUtil.hashPassword(password));
+    }
+    
+    public int getQueuedCount() {
+        return verifier.getQueue().size();
+    }
+    
+    public int getActiveCount() {
+        return verifier.getActiveCount();
+    }
+    
+    private <T> T await(Callable<T> work) {
+        Future<T> result = verifier.submit(work);
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new RejectedExecutionException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error hashing password", e.getCause());
+        }
+    }
+    
+    private static String verifyAndUpgrade(String password, String storedHash) {
+        if (!PasswordUtil.verifyPassword(password, storedHash)) {
+            return null;
+        }
+        return PasswordUtil.needsRehash(storedHash) ? PasswordUtil.hashPassword(password) : storedHash;
+    }
+    
+    private static int getInt(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        return value != null && !value.trim().isEmpty() ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package service;
+
+import com.google.gson.stream.JsonWriter;
+import dao.OrderDAO;
+import model.OrderDetail;
+import util.CsvWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+public class OrderExporter {
+    private static final String[] CSV_HEADER = {
+        "order_id", "order_date", "status", "total_amount", "customer_name", "customer_email",
+        "book_title", "book_author", "quantity", "price", "subtotal"
+    };
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    public enum Format {
+        CSV("text/csv", ".csv"),
+        JSONL("application/x-ndjson", ".jsonl");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        public static Format parse(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return CSV;
+            }
+            String name = value.trim().toUpperCase(Locale.ROOT);
+            if ("NDJSON".equals(name) || "JSON".equals(name)) {
+                return JSONL;
+            }
+            return valueOf(name);
+        }
+    }
+    
+    private final OrderDAO orderDAO;
+    
+    public OrderExporter() {
+        this(new OrderDAO());
+    }
+    
+    public OrderExporter(OrderDAO orderDAO) {
+        this.orderDAO = orderDAO;
+    }
+    
+    public long export(Timestamp from, Timestamp to, Format format, Writer out) throws SQLException, IOException {
+        RowWriter rows = format == Format.JSONL ? new JsonLinesRowWriter(out) : new CsvRowWriter(out);
+        long[] count = new long[1];
+        try {
+            orderDAO.forEachDetail(from, to, detail -> {
+                try {
+                    rows.write(detail);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        return count[0];
+    }
+    
+    private static String dateTime(Timestamp value) {
+        return value != null ? DATE_TIME.format(value.toLocalDateTime()) : null;
+    }
+    
+    private static String decimal(BigDecimal value) {
+        return value != null ? value.toPlainString() : null;
+    }
+    
+    private interface RowWriter {
+        void write(OrderDetail detail) throws IOException;
+    }
+    
+    private static class CsvRowWriter implements RowWriter {
+        private final CsvWriter csv;
+        
+        CsvRowWriter(Writer out) throws IOException {
+            this.csv = new CsvWriter(out);
+            csv.writeRecord(CSV_HEADER);
+        }
+        
+        @Override
+        public void write(OrderDetail detail) throws IOException {
+            csv.writeRecord(
+                String.valueOf(detail.getOrderId()),
+                dateTime(detail.getOrderDate()),
+                detail.getStatus(),
+                decimal(detail.getTotalAmount()),
+                detail.getCustomerName(),
+                detail.getCustomerEmail(),
+                detail.getBookTitle(),
+                detail.getBookAuthor(),
+                String.valueOf(detail.getQuantity()),
+                decimal(detail.getPrice()),
+                decimal(detail.getSubtotal())
+            );
+        }
+    }
+    
+    private static class JsonLinesRowWriter implements RowWriter {
+        private final Writer out;
+        private final JsonWriter json;
+        
+        JsonLinesRowWriter(Writer out) {
+            this.out = out;
+            this.json = new JsonWriter(out);
+            json.setLenient(true);
+            json.setHtmlSafe(false);
+        }
+        
+        @Override
+        public void write(OrderDetail detail) throws IOException {
+            json.beginObject();
+            json.name("order_id").value(detail.getOrderId());
+            json.name("order_date").value(dateTime(detail.getOrderDate()));
+            json.name("status").value(detail.getStatus());
+            json.name("total_amount").value(detail.getTotalAmount());
+            json.name("customer_name").value(detail.getCustomerName());
+            json.name("customer_email").value(detail.getCustomerEmail());
+            json.name("book_title").value(detail.getBookTitle());
+            json.name("book_author").value(detail.getBookAuthor());
+            json.name("quantity").value(detail.getQuantity());
+            json.name("price").value(detail.getPrice());
+            json.name("subtotal").value(detail.getSubtotal());
+            json.endObject();
+            out.write('\n');
+        }
+    }
+}
\ No newline at end of file
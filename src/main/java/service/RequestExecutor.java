@@ -0,0 +1,187 @@
+package service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestExecutor {
+    public static final String ENABLED_KEY = "asyncEnabled";
+    public static final String THREADS_KEY = "asyncThreads";
+    public static final String QUEUE_KEY = "asyncQueue";
+    public static final String TIMEOUT_KEY = "asyncTimeoutMs";
+    public static final String MODE_KEY = "asyncExecutor";
+    public static final String MAX_CONCURRENT_KEY = "asyncMaxConcurrent";
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+    
+    private static final Logger logger = LoggerFactory.getLogger(RequestExecutor.class);
+    private static final int DEFAULT_THREADS = 16;
+    private static final int DEFAULT_QUEUE = 200;
+    private static final int DEFAULT_MAX_CONCURRENT = 1000;
+    private static final long DEFAULT_TIMEOUT_MS = 15000;
+    
+    private static volatile RequestExecutor instance;
+    
+    private final ExecutorService workers;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final String mode;
+    private final boolean enabled;
+    private final long timeoutMillis;
+    
+    RequestExecutor(boolean enabled, int threads, int queueSize, long timeoutMillis) {
+        this.enabled = enabled;
+        this.timeoutMillis = timeoutMillis;
+        this.mode = PLATFORM;
+        this.maxConcurrent = threads + queueSize;
+        this.permits = null;
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread thread = new Thread(r, "request-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        this.workers = pool;
+    }
+    
+    RequestExecutor(boolean enabled, ExecutorService virtualWorkers, int maxConcurrent, long timeoutMillis) {
+        this.enabled = enabled;
+        this.timeoutMillis = timeoutMillis;
+        this.mode = VIRTUAL;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.workers = virtualWorkers;
+    }
+    
+    public static synchronized void configure(Properties props) {
+        RequestExecutor previous = instance;
+        instance = create(props);
+        if (previous != null) {
+            previous.workers.shutdown();
+        }
+    }
+    
+    public static RequestExecutor getInstance() {
+        RequestExecutor executor = instance;
+        if (executor == null) {
+            synchronized (RequestExecutor.class) {
+                if (instance == null) {
+                    configure(new Properties());
+                }
+                executor = instance;
+            }
+        }
+        return executor;
+    }
+    
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.workers.shutdown();
+            try {
+                if (!instance.workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                    instance.workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                instance.workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            instance = null;
+        }
+    }
+    
+    public Future<?> submit(Runnable task) {
+        if (permits == null) {
+            return workers.submit(task);
+        }
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("Too many concurrent requests");
+        }
+        try {
+            return workers.submit(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    public String getMode() {
+        return mode;
+    }
+    
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+    
+    public int getQueuedCount() {
+        return workers instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) workers).getQueue().size() : 0;
+    }
+    
+    public int getActiveCount() {
+        if (workers instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) workers).getActiveCount();
+        }
+        return maxConcurrent - permits.availablePermits();
+    }
+    
+    private static RequestExecutor create(Properties props) {
+        boolean enabled = Boolean.parseBoolean(props.getProperty(ENABLED_KEY, "true").trim());
+        long timeoutMillis = getInt(props, TIMEOUT_KEY, (int) DEFAULT_TIMEOUT_MS);
+        String mode = props.getProperty(MODE_KEY, PLATFORM).trim();
+        if (VIRTUAL.equalsIgnoreCase(mode)) {
+            ExecutorService virtualWorkers = newVirtualThreadExecutor();
+            if (virtualWorkers != null) {
+                return new RequestExecutor(enabled, virtualWorkers,
+                        getInt(props, MAX_CONCURRENT_KEY, DEFAULT_MAX_CONCURRENT), timeoutMillis);
+            }
+            logger.warn("Virtual threads require Java 21; falling back to the platform thread pool");
+        }
+        return new RequestExecutor(enabled, getInt(props, THREADS_KEY, DEFAULT_THREADS),
+                getInt(props, QUEUE_KEY, DEFAULT_QUEUE), timeoutMillis);
+    }
+    
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "request-worker-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method executor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) executor.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+    
+    private static int getInt(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        return value != null && !value.trim().isEmpty() ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+}
\ No newline at end of file
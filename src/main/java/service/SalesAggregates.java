@@ -0,0 +1,658 @@
+package service;
+
+import dao.CachingBookDAO;
+import dao.OrderDAO;
+import dao.OrderListener;
+import dao.SalesSummaryDAO;
+import model.Book;
+import model.BookSales;
+import model.DailySales;
+import model.Order;
+import model.OrderItem;
+import model.StatusTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.DBConnection;
+import util.TransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+public class SalesAggregates implements OrderListener {
+    public static final String RETENTION_DAYS_KEY = "salesRetentionDays";
+    public static final String FLUSH_INTERVAL_KEY = "salesFlushIntervalMs";
+    public static final String RECONCILE_INTERVAL_KEY = "salesReconcileIntervalMs";
+    
+    private static final Logger logger = LoggerFactory.getLogger(SalesAggregates.class);
+    private static final int DEFAULT_RETENTION_DAYS = 400;
+    private static final long DEFAULT_FLUSH_INTERVAL_MS = 5000;
+    private static final long DEFAULT_RECONCILE_INTERVAL_MS = 15 * 60 * 1000;
+    private static final Comparator<BookSales> BEST_SELLING = Comparator
+            .comparingInt(BookSales::getQuantitySold)
+            .thenComparing(BookSales::getRevenue)
+            .thenComparing(Comparator.comparingInt(BookSales::getBookId).reversed());
+    
+    private static volatile SalesAggregates instance;
+    
+    private final SalesSummaryDAO summaryDAO;
+    private final int retentionDays;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Rollup rollup = new Rollup();
+    private List<Event> replay = new ArrayList<>();
+    private volatile long reconciledAt;
+    private volatile boolean loaded;
+    
+    SalesAggregates(SalesSummaryDAO summaryDAO, int retentionDays, long flushIntervalMillis,
+                    long reconcileIntervalMillis) {
+        this.summaryDAO = summaryDAO;
+        this.retentionDays = retentionDays;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sales-aggregates");
+            thread.setDaemon(true);
+            return thread;
+        });
+        OrderDAO.addOrderListener(this);
+        scheduler.execute(this::loadQuietly);
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileIntervalMillis, reconcileIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+    
+    public static synchronized void configure(Properties props) {
+        SalesAggregates previous = instance;
+        if (previous != null) {
+            previous.close();
+        }
+        instance = new SalesAggregates(new SalesSummaryDAO(),
+                (int) getLong(props, RETENTION_DAYS_KEY, DEFAULT_RETENTION_DAYS),
+                getLong(props, FLUSH_INTERVAL_KEY, DEFAULT_FLUSH_INTERVAL_MS),
+                getLong(props, RECONCILE_INTERVAL_KEY, DEFAULT_RECONCILE_INTERVAL_MS));
+    }
+    
+    public static SalesAggregates getInstance() {
+        SalesAggregates aggregates = instance;
+        if (aggregates == null) {
+            synchronized (SalesAggregates.class) {
+                if (instance == null) {
+                    configure(new Properties());
+                }
+                aggregates = instance;
+            }
+        }
+        return aggregates;
+    }
+    
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+    
+    @Override
+    public void orderPlaced(Order order) {
+        apply(new Event(order.getId(), order.getStatus(), rollup -> rollup.place(order)));
+    }
+    
+    @Override
+    public void orderStatusChanged(Order order, String previousStatus) {
+        apply(new Event(order.getId(), order.getStatus(), rollup -> rollup.changeStatus(order, previousStatus)));
+    }
+    
+    @Override
+    public void orderDeleted(Order order) {
+        apply(new Event(order.getId(), null, rollup -> rollup.delete(order)));
+    }
+    
+    public Dashboard getDashboard(int days, int topSellers) {
+        LocalDate today = LocalDate.now(DBConnection.TIME_ZONE);
+        LocalDate first = today.minusDays(Math.max(1, Math.min(days, retentionDays)) - 1);
+        List<DailySales> revenue = new ArrayList<>();
+        List<StatusTotals> statuses = new ArrayList<>();
+        PriorityQueue<BookSales> top = new PriorityQueue<>(Math.max(1, topSellers), BEST_SELLING);
+        
+        lock.lock();
+        try {
+            for (LocalDate day = first; !day.isAfter(today); day = day.plusDays(1)) {
+                DailySales sales = rollup.daily.get(day);
+                revenue.add(sales != null ? sales.copy() : new DailySales(Date.valueOf(day), 0, 0, BigDecimal.ZERO));
+            }
+            for (StatusTotals status : rollup.byStatus.values()) {
+                statuses.add(status.copy());
+            }
+            for (BookSales book : rollup.byBook.values()) {
+                if (book.getQuantitySold() <= 0 || topSellers <= 0) {
+                    continue;
+                }
+                if (top.size() < topSellers) {
+                    top.add(book.copy());
+                } else if (BEST_SELLING.compare(book, top.peek()) > 0) {
+                    top.poll();
+                    top.add(book.copy());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        
+        statuses.sort(Comparator.comparing(StatusTotals::getStatus));
+        List<BookSales> bestSellers = new ArrayList<>(top);
+        bestSellers.sort(BEST_SELLING.reversed());
+        describeBooks(bestSellers);
+        return new Dashboard(revenue, statuses, bestSellers, loaded,
+                reconciledAt > 0 ? new Timestamp(reconciledAt) : null);
+    }
+    
+    public void reconcileAsync() {
+        try {
+            scheduler.execute(this::reconcileQuietly);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Sales aggregates are shutting down; reconciliation skipped");
+        }
+    }
+    
+    public void reconcile() throws SQLException {
+        Date since = Date.valueOf(retentionStart());
+        beginReplay();
+        Rollup fresh = new Rollup();
+        boolean wasLoaded = loaded;
+        int corrected;
+        try {
+            corrected = TransactionManager.execute(Connection.TRANSACTION_REPEATABLE_READ, 0, () -> {
+                fresh.fill(summaryDAO.aggregateDaily(since), summaryDAO.aggregateStatusTotals(),
+                        summaryDAO.aggregateBookSales());
+                lock.lock();
+                try {
+                    endReplay(fresh, summaryDAO.findOrderStatuses(replayedOrderIds()));
+                    int differences = rollup.countDifferences(fresh);
+                    rollup = fresh;
+                    return differences;
+                } finally {
+                    lock.unlock();
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            endReplay(null, null);
+            throw e;
+        }
+        if (wasLoaded && corrected > 0) {
+            logger.info("Sales reconciliation corrected {} drifted buckets", corrected);
+        }
+        
+        List<DailySales> days = new ArrayList<>();
+        List<StatusTotals> statuses = new ArrayList<>();
+        List<BookSales> books = new ArrayList<>();
+        lock.lock();
+        try {
+            fresh.dirtyDays.clear();
+            fresh.dirtyStatuses.clear();
+            fresh.dirtyBooks.clear();
+            fresh.copyAll(days, statuses, books);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            summaryDAO.replace(since, days, statuses, books);
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                fresh.markAllDirty();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        loaded = true;
+        reconciledAt = System.currentTimeMillis();
+    }
+    
+    public void flush() throws SQLException {
+        List<DailySales> days = new ArrayList<>();
+        List<StatusTotals> statuses = new ArrayList<>();
+        List<BookSales> books = new ArrayList<>();
+        Rollup current;
+        if (!loaded) {
+            return;
+        }
+        lock.lock();
+        try {
+            current = rollup;
+            current.trim(retentionStart());
+            current.takeDirty(days, statuses, books);
+        } finally {
+            lock.unlock();
+        }
+        
+        try {
+            summaryDAO.save(days, statuses, books);
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                current.markDirty(days, statuses, books);
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+    
+    private void load() throws SQLException {
+        Date since = Date.valueOf(retentionStart());
+        Rollup stored = new Rollup();
+        try {
+            stored.fill(summaryDAO.findDaily(since), summaryDAO.findStatusTotals(), summaryDAO.findBookSales());
+        } catch (SQLException | RuntimeException e) {
+            endReplay(null, null);
+            throw e;
+        }
+        
+        lock.lock();
+        try {
+            endReplay(stored, null);
+            rollup = stored;
+        } finally {
+            lock.unlock();
+        }
+        
+        if (stored.byStatus.isEmpty()) {
+            reconcile();
+        } else {
+            loaded = true;
+        }
+    }
+    
+    private void apply(Event event) {
+        lock.lock();
+        try {
+            event.action.accept(rollup);
+            if (replay != null) {
+                replay.add(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void beginReplay() {
+        lock.lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private Set<Integer> replayedOrderIds() {
+        Set<Integer> ids = new HashSet<>();
+        for (Event event : replay) {
+            ids.add(event.orderId);
+        }
+        return ids;
+    }
+    
+    private void endReplay(Rollup target, Map<Integer, String> snapshot) {
+        lock.lock();
+        try {
+            if (target != null && replay != null) {
+                Map<Integer, Integer> covered = snapshot != null ? coveredEvents(snapshot) : new HashMap<>();
+                Map<Integer, Integer> seen = new HashMap<>();
+                for (Event event : replay) {
+                    int index = seen.merge(event.orderId, 1, Integer::sum);
+                    if (index > covered.getOrDefault(event.orderId, 0)) {
+                        event.action.accept(target);
+                    }
+                }
+            }
+            replay = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private Map<Integer, Integer> coveredEvents(Map<Integer, String> snapshot) {
+        Map<Integer, List<Event>> chains = new HashMap<>();
+        for (Event event : replay) {
+            chains.computeIfAbsent(event.orderId, id -> new ArrayList<>()).add(event);
+        }
+        Map<Integer, Integer> covered = new HashMap<>();
+        for (Map.Entry<Integer, List<Event>> chain : chains.entrySet()) {
+            String state = snapshot.get(chain.getKey());
+            List<Event> events = chain.getValue();
+            for (int i = events.size(); i > 0; i--) {
+                if (Objects.equals(events.get(i - 1).toStatus, state)) {
+                    covered.put(chain.getKey(), i);
+                    break;
+                }
+            }
+        }
+        return covered;
+    }
+    
+    private LocalDate retentionStart() {
+        return LocalDate.now(DBConnection.TIME_ZONE).minusDays(retentionDays - 1);
+    }
+    
+    private void describeBooks(List<BookSales> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(books.size());
+        for (BookSales book : books) {
+            ids.add(book.getBookId());
+        }
+        try {
+            Map<Integer, Book> byId = new HashMap<>();
+            for (Book book : new CachingBookDAO().findByIds(ids)) {
+                byId.put(book.getId(), book);
+            }
+            for (BookSales sales : books) {
+                Book book = byId.get(sales.getBookId());
+                if (book != null) {
+                    sales.setTitle(book.getTitle());
+                    sales.setAuthor(book.getAuthor());
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void loadQuietly() {
+        try {
+            load();
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void close() {
+        OrderDAO.removeOrderListener(this);
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+    
+    private static long getLong(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        return value != null && !value.trim().isEmpty() ? Long.parseLong(value.trim()) : defaultValue;
+    }
+    
+    private static class Rollup {
+        private final TreeMap<LocalDate, DailySales> daily = new TreeMap<>();
+        private final Map<String, StatusTotals> byStatus = new HashMap<>();
+        private final Map<Integer, BookSales> byBook = new HashMap<>();
+        private final Set<LocalDate> dirtyDays = new HashSet<>();
+        private final Set<String> dirtyStatuses = new HashSet<>();
+        private final Set<Integer> dirtyBooks = new HashSet<>();
+        
+        void fill(Collection<DailySales> days, Collection<StatusTotals> statuses, Collection<BookSales> books) {
+            for (DailySales day : days) {
+                daily.put(day.getSaleDate().toLocalDate(), day);
+            }
+            for (StatusTotals status : statuses) {
+                byStatus.put(status.getStatus(), status);
+            }
+            for (BookSales book : books) {
+                byBook.put(book.getBookId(), book);
+            }
+        }
+        
+        void place(Order order) {
+            addStatus(order.getStatus(), 1, amount(order));
+            if (!SalesSummaryDAO.CANCELLED.equals(order.getStatus())) {
+                addSale(order, 1);
+            }
+        }
+        
+        void delete(Order order) {
+            addStatus(order.getStatus(), -1, amount(order).negate());
+            if (!SalesSummaryDAO.CANCELLED.equals(order.getStatus())) {
+                addSale(order, -1);
+            }
+        }
+        
+        void changeStatus(Order order, String previousStatus) {
+            BigDecimal amount = amount(order);
+            addStatus(previousStatus, -1, amount.negate());
+            addStatus(order.getStatus(), 1, amount);
+            boolean wasCancelled = SalesSummaryDAO.CANCELLED.equals(previousStatus);
+            boolean isCancelled = SalesSummaryDAO.CANCELLED.equals(order.getStatus());
+            if (wasCancelled != isCancelled) {
+                addSale(order, isCancelled ? -1 : 1);
+            }
+        }
+        
+        private void addStatus(String status, int orders, BigDecimal amount) {
+            if (status == null) {
+                return;
+            }
+            byStatus.computeIfAbsent(status, s -> new StatusTotals(s, 0, BigDecimal.ZERO)).add(orders, amount);
+            dirtyStatuses.add(status);
+        }
+        
+        private void addSale(Order order, int sign) {
+            BigDecimal signum = BigDecimal.valueOf(sign);
+            int items = 0;
+            for (OrderItem item : order.getOrderItems()) {
+                items += item.getQuantity();
+                BigDecimal subtotal = item.getSubtotal() != null ? item.getSubtotal() : BigDecimal.ZERO;
+                byBook.computeIfAbsent(item.getBookId(), id -> new BookSales(id, 0, BigDecimal.ZERO))
+                        .add(sign * item.getQuantity(), subtotal.multiply(signum));
+                dirtyBooks.add(item.getBookId());
+            }
+            if (order.getOrderDate() != null) {
+                LocalDate day = order.getOrderDate().toInstant().atZone(DBConnection.TIME_ZONE).toLocalDate();
+                daily.computeIfAbsent(day, d -> new DailySales(Date.valueOf(d), 0, 0, BigDecimal.ZERO))
+                        .add(sign, sign * items, amount(order).multiply(signum));
+                dirtyDays.add(day);
+            }
+        }
+        
+        private static BigDecimal amount(Order order) {
+            return order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+        }
+        
+        void trim(LocalDate since) {
+            daily.headMap(since).clear();
+            dirtyDays.removeIf(day -> day.isBefore(since));
+        }
+        
+        void takeDirty(List<DailySales> days, List<StatusTotals> statuses, List<BookSales> books) {
+            for (LocalDate day : dirtyDays) {
+                days.add(daily.get(day).copy());
+            }
+            for (String status : dirtyStatuses) {
+                statuses.add(byStatus.get(status).copy());
+            }
+            for (Integer bookId : dirtyBooks) {
+                books.add(byBook.get(bookId).copy());
+            }
+            dirtyDays.clear();
+            dirtyStatuses.clear();
+            dirtyBooks.clear();
+        }
+        
+        void markDirty(List<DailySales> days, List<StatusTotals> statuses, List<BookSales> books) {
+            for (DailySales day : days) {
+                dirtyDays.add(day.getSaleDate().toLocalDate());
+            }
+            for (StatusTotals status : statuses) {
+                dirtyStatuses.add(status.getStatus());
+            }
+            for (BookSales book : books) {
+                dirtyBooks.add(book.getBookId());
+            }
+        }
+        
+        void markAllDirty() {
+            dirtyDays.addAll(daily.keySet());
+            dirtyStatuses.addAll(byStatus.keySet());
+            dirtyBooks.addAll(byBook.keySet());
+        }
+        
+        void copyAll(List<DailySales> days, List<StatusTotals> statuses, List<BookSales> books) {
+            for (DailySales day : daily.values()) {
+                days.add(day.copy());
+            }
+            for (StatusTotals status : byStatus.values()) {
+                statuses.add(status.copy());
+            }
+            for (BookSales book : byBook.values()) {
+                books.add(book.copy());
+            }
+        }
+        
+        int countDifferences(Rollup other) {
+            int differences = 0;
+            Set<LocalDate> days = new HashSet<>(daily.keySet());
+            days.addAll(other.daily.keySet());
+            for (LocalDate day : days) {
+                DailySales a = daily.get(day);
+                DailySales b = other.daily.get(day);
+                if (a == null || b == null || a.getOrderCount() != b.getOrderCount()
+                        || a.getItemsSold() != b.getItemsSold() || a.getRevenue().compareTo(b.getRevenue()) != 0) {
+                    differences++;
+                }
+            }
+            Set<String> statuses = new HashSet<>(byStatus.keySet());
+            statuses.addAll(other.byStatus.keySet());
+            for (String status : statuses) {
+                StatusTotals a = byStatus.get(status);
+                StatusTotals b = other.byStatus.get(status);
+                if (a == null || b == null || a.getOrderCount() != b.getOrderCount()
+                        || a.getTotalAmount().compareTo(b.getTotalAmount()) != 0) {
+                    differences++;
+                }
+            }
+            Set<Integer> books = new HashSet<>(byBook.keySet());
+            books.addAll(other.byBook.keySet());
+            for (Integer bookId : books) {
+                BookSales a = byBook.get(bookId);
+                BookSales b = other.byBook.get(bookId);
+                if (a == null || b == null || a.getQuantitySold() != b.getQuantitySold()
+                        || a.getRevenue().compareTo(b.getRevenue()) != 0) {
+                    differences++;
+                }
+            }
+            return differences;
+        }
+    }
+    
+    private static class Event {
+        private final int orderId;
+        private final String toStatus;
+        private final Consumer<Rollup> action;
+        
+        Event(int orderId, String toStatus, Consumer<Rollup> action) {
+            this.orderId = orderId;
+            this.toStatus = toStatus;
+            this.action = action;
+        }
+    }
+    
+    public static class Dashboard {
+        private final List<DailySales> revenueByDay;
+        private final List<StatusTotals> ordersByStatus;
+        private final List<BookSales> topSellers;
+        private final int orderCount;
+        private final int itemsSold;
+        private final BigDecimal revenue;
+        private final boolean loaded;
+        private final Timestamp reconciledAt;
+        
+        Dashboard(List<DailySales> revenueByDay, List<StatusTotals> ordersByStatus, List<BookSales> topSellers,
+                  boolean loaded, Timestamp reconciledAt) {
+            this.revenueByDay = revenueByDay;
+            this.ordersByStatus = ordersByStatus;
+            this.topSellers = topSellers;
+            this.loaded = loaded;
+            this.reconciledAt = reconciledAt;
+            int orders = 0;
+            int items = 0;
+            BigDecimal total = BigDecimal.ZERO;
+            for (DailySales day : revenueByDay) {
+                orders += day.getOrderCount();
+                items += day.getItemsSold();
+                total = total.add(day.getRevenue());
+            }
+            this.orderCount = orders;
+            this.itemsSold = items;
+            this.revenue = total;
+        }
+        
+        public List<DailySales> getRevenueByDay() {
+            return revenueByDay;
+        }
+        
+        public List<StatusTotals> getOrdersByStatus() {
+            return ordersByStatus;
+        }
+        
+        public List<BookSales> getTopSellers() {
+            return topSellers;
+        }
+        
+        public int getOrderCount() {
+            return orderCount;
+        }
+        
+        public int getItemsSold() {
+            return itemsSold;
+        }
+        
+        public BigDecimal getRevenue() {
+            return revenue;
+        }
+        
+        public boolean isLoaded() {
+            return loaded;
+        }
+        
+        public Timestamp getReconciledAt() {
+            return reconciledAt;
+        }
+    }
+}
\ No newline at end of file
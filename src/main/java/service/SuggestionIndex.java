@@ -0,0 +1,347 @@
+package service;
+
+import dao.BookDAO;
+import dao.CatalogListener;
+import dao.SalesSummaryDAO;
+import model.BookSales;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SuggestionIndex implements CatalogListener {
+    public static final int MAX_LIMIT = 25;
+    
+    private static final byte TITLE = 0;
+    private static final byte AUTHOR = 1;
+    private static final byte ISBN = 2;
+    
+    private static final String[] TYPE_NAMES = {"title", "author", "isbn"};
+    private static final long REBUILD_DELAY_SECONDS = 5;
+    private static final long WEIGHT_REFRESH_MINUTES = 10;
+    private static final ThreadLocal<RangeHeap> HEAPS = ThreadLocal.withInitial(() -> new RangeHeap(MAX_LIMIT * 2));
+    
+    private static volatile SuggestionIndex instance;
+    
+    private final ScheduledExecutorService rebuilder;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new String[0], new byte[0], new int[0], new long[0]);
+    
+    private SuggestionIndex() {
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "suggestion-index-rebuilder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public static SuggestionIndex getInstance() {
+        if (instance == null) {
+            synchronized (SuggestionIndex.class) {
+                if (instance == null) {
+                    instance = new SuggestionIndex();
+                }
+            }
+        }
+        return instance;
+    }
+    
+    public void start() {
+        BookDAO.addCatalogListener(this);
+        rebuilder.execute(this::rebuildQuietly);
+        rebuilder.scheduleWithFixedDelay(this::rebuildQuietly, WEIGHT_REFRESH_MINUTES, WEIGHT_REFRESH_MINUTES,
+                TimeUnit.MINUTES);
+    }
+    
+    public void shutdown() {
+        BookDAO.removeCatalogListener(this);
+        rebuilder.shutdownNow();
+    }
+    
+    @Override
+    public void bookChanged(int bookId) {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(() -> {
+                rebuildScheduled.set(false);
+                rebuildQuietly();
+            }, REBUILD_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+    
+    public void rebuild() throws SQLException {
+        Map<Integer, Integer> sales = new HashMap<>();
+        for (BookSales book : new SalesSummaryDAO().findBookSales()) {
+            sales.put(book.getBookId(), book.getQuantitySold());
+        }
+        List<Entry> entries = new ArrayList<>();
+        new BookDAO().forEach(book -> {
+            long weight = sales.getOrDefault(book.getId(), 0);
+            addEntry(entries, book.getTitle(), TITLE, book.getId(), weight);
+            addEntry(entries, book.getAuthor(), AUTHOR, book.getId(), weight);
+            addEntry(entries, book.getIsbn(), ISBN, book.getId(), weight);
+        });
+        entries.sort(Comparator.comparing((Entry e) -> e.key).thenComparing(e -> e.type)
+                .thenComparing(Comparator.comparingLong((Entry e) -> e.weight).reversed()));
+        
+        List<Entry> unique = new ArrayList<>(entries.size());
+        Entry previous = null;
+        for (Entry entry : entries) {
+            if (previous == null || !previous.key.equals(entry.key) || previous.type != entry.type) {
+                unique.add(entry);
+                previous = entry;
+            } else {
+                previous.weight += entry.weight;
+            }
+        }
+        
+        int size = unique.size();
+        String[] keys = new String[size];
+        String[] values = new String[size];
+        byte[] types = new byte[size];
+        int[] bookIds = new int[size];
+        long[] weights = new long[size];
+        for (int i = 0; i < size; i++) {
+            Entry entry = unique.get(i);
+            keys[i] = entry.key;
+            values[i] = entry.value;
+            types[i] = entry.type;
+            bookIds[i] = entry.bookId;
+            weights[i] = entry.weight;
+        }
+        snapshot = new Snapshot(keys, values, types, bookIds, weights);
+    }
+    
+    public int suggest(CharSequence prefix, int limit, SuggestionSink sink) throws IOException {
+        Snapshot current = snapshot;
+        int first = current.lowerBound(prefix);
+        int end = current.upperBound(prefix, first);
+        if (first >= end || limit <= 0) {
+            return 0;
+        }
+        limit = Math.min(limit, MAX_LIMIT);
+        RangeHeap ranges = HEAPS.get();
+        ranges.clear();
+        ranges.push(current, current.heaviest(first, end), first, end);
+        int count = 0;
+        while (count < limit && !ranges.isEmpty()) {
+            int i = ranges.best[0];
+            int from = ranges.from[0];
+            int to = ranges.to[0];
+            ranges.pop(current);
+            sink.accept(TYPE_NAMES[current.types[i]], current.values[i], current.bookIds[i]);
+            count++;
+            if (from < i) {
+                ranges.push(current, current.heaviest(from, i), from, i);
+            }
+            if (i + 1 < to) {
+                ranges.push(current, current.heaviest(i + 1, to), i + 1, to);
+            }
+        }
+        ranges.clear();
+        return count;
+    }
+    
+    public int size() {
+        return snapshot.keys.length;
+    }
+    
+    private static void addEntry(List<Entry> entries, String value, byte type, int bookId, long weight) {
+        if (value != null && !value.trim().isEmpty()) {
+            entries.add(new Entry(value.trim(), type, bookId, weight));
+        }
+    }
+    
+    private static int compareIgnoreCase(String key, CharSequence prefix) {
+        int length = Math.min(key.length(), prefix.length());
+        for (int i = 0; i < length; i++) {
+            char a = key.charAt(i);
+            char b = Character.toLowerCase(prefix.charAt(i));
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return key.length() < prefix.length() ? -1 : 0;
+    }
+    
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    public interface SuggestionSink {
+        void accept(String type, String value, int bookId) throws IOException;
+    }
+    
+    private static class Snapshot {
+        private final String[] keys;
+        private final String[] values;
+        private final byte[] types;
+        private final int[] bookIds;
+        private final long[] weights;
+        private final int[] heaviest;
+        
+        Snapshot(String[] keys, String[] values, byte[] types, int[] bookIds, long[] weights) {
+            this.keys = keys;
+            this.values = values;
+            this.types = types;
+            this.bookIds = bookIds;
+            this.weights = weights;
+            int size = keys.length;
+            this.heaviest = new int[2 * size];
+            for (int i = 0; i < size; i++) {
+                heaviest[size + i] = i;
+            }
+            for (int i = size - 1; i > 0; i--) {
+                heaviest[i] = heavier(heaviest[2 * i], heaviest[2 * i + 1]);
+            }
+        }
+        
+        int heaviest(int from, int to) {
+            int best = -1;
+            for (int low = from + keys.length, high = to + keys.length; low < high; low >>= 1, high >>= 1) {
+                if ((low & 1) == 1) {
+                    best = heavier(best, heaviest[low++]);
+                }
+                if ((high & 1) == 1) {
+                    best = heavier(best, heaviest[--high]);
+                }
+            }
+            return best;
+        }
+        
+        int heavier(int a, int b) {
+            if (a < 0 || b < 0) {
+                return a < 0 ? b : a;
+            }
+            if (weights[a] != weights[b]) {
+                return weights[a] > weights[b] ? a : b;
+            }
+            return Math.min(a, b);
+        }
+        
+        int lowerBound(CharSequence prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareIgnoreCase(keys[mid], prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+        
+        int upperBound(CharSequence prefix, int from) {
+            int low = from;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareIgnoreCase(keys[mid], prefix) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+    
+    private static class RangeHeap {
+        private final int[] best;
+        private final int[] from;
+        private final int[] to;
+        private int size;
+        
+        RangeHeap(int capacity) {
+            this.best = new int[capacity];
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+        }
+        
+        void clear() {
+            size = 0;
+        }
+        
+        boolean isEmpty() {
+            return size == 0;
+        }
+        
+        void push(Snapshot snapshot, int index, int rangeFrom, int rangeTo) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (snapshot.heavier(best[parent], index) != index) {
+                    break;
+                }
+                move(parent, i);
+                i = parent;
+            }
+            set(i, index, rangeFrom, rangeTo);
+        }
+        
+        void pop(Snapshot snapshot) {
+            int last = --size;
+            int index = best[last];
+            int rangeFrom = from[last];
+            int rangeTo = to[last];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && snapshot.heavier(best[child], best[child + 1]) != best[child]) {
+                    child++;
+                }
+                if (snapshot.heavier(best[child], index) != best[child]) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            if (size > 0) {
+                set(i, index, rangeFrom, rangeTo);
+            }
+        }
+        
+        private void move(int source, int target) {
+            set(target, best[source], from[source], to[source]);
+        }
+        
+        private void set(int i, int index, int rangeFrom, int rangeTo) {
+            best[i] = index;
+            from[i] = rangeFrom;
+            to[i] = rangeTo;
+        }
+    }
+    
+    private static class Entry {
+        private final String key;
+        private final String value;
+        private final byte type;
+        private final int bookId;
+        private long weight;
+        
+        Entry(String value, byte type, int bookId, long weight) {
+            this.key = value.toLowerCase(Locale.ROOT);
+            this.value = value;
+            this.type = type;
+            this.bookId = bookId;
+            this.weight = weight;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package tag;
+
+import service.FragmentCache;
+
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.tagext.JspFragment;
+import javax.servlet.jsp.tagext.SimpleTagSupport;
+import java.io.IOException;
+import java.io.StringWriter;
+
+public class FragmentCacheTag extends SimpleTagSupport {
+    private String key;
+    private String content;
+    
+    public void setKey(String key) {
+        this.key = key;
+    }
+    
+    public void setContent(String content) {
+        this.content = content;
+    }
+    
+    @Override
+    public void doTag() throws JspException, IOException {
+        if (content != null) {
+            getJspContext().getOut().write(content);
+            return;
+        }
+        JspFragment body = getJspBody();
+        if (body == null) {
+            return;
+        }
+        if (key == null || key.isEmpty()) {
+            body.invoke(null);
+            return;
+        }
+        StringWriter writer = new StringWriter(16384);
+        body.invoke(writer);
+        String html = writer.toString();
+        FragmentCache.getInstance().put(key, html);
+        getJspContext().getOut().write(html);
+    }
+}
\ No newline at end of file
@@ -1,61 +1,174 @@
 package util;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import metrics.InstrumentedConnection;
+import metrics.MetricsRegistry;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.ZoneId;
+import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
 
 public class DBConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/bookstore?useSSL=false&serverTimezone=UTC";
+    public static final String URL_KEY = "dbUrl";
+    public static final String USERNAME_KEY = "dbUsername";
+    public static final String PASSWORD_KEY = "dbPassword";
+    public static final String DRIVER_KEY = "dbDriver";
+    public static final String POOL_MAX_SIZE_KEY = "dbPoolMaxSize";
+    public static final String POOL_MIN_IDLE_KEY = "dbPoolMinIdle";
+    public static final String CONNECTION_TIMEOUT_KEY = "dbConnectionTimeoutMs";
+    public static final String IDLE_TIMEOUT_KEY = "dbIdleTimeoutMs";
+    public static final String MAX_LIFETIME_KEY = "dbMaxLifetimeMs";
+    public static final String LEAK_DETECTION_KEY = "dbLeakDetectionThresholdMs";
+    public static final String QUERY_TIMEOUT_KEY = "dbQueryTimeoutMs";
+    public static final String STATEMENT_CACHE_SIZE_KEY = "dbStatementCacheSize";
+    public static final String STATEMENT_CACHE_SQL_LIMIT_KEY = "dbStatementCacheSqlLimit";
+    public static final String REPLICA_URL_KEY = "dbReplicaUrl";
+    public static final String REPLICA_USERNAME_KEY = "dbReplicaUsername";
+    public static final String REPLICA_PASSWORD_KEY = "dbReplicaPassword";
+    public static final String REPLICA_POOL_MAX_SIZE_KEY = "dbReplicaPoolMaxSize";
+    public static final String REPLICA_MAX_LAG_KEY = "dbReplicaMaxLagMs";
+    public static final String REPLICA_HEARTBEAT_KEY = "dbReplicaHeartbeatMs";
+    
+    public static final ZoneId TIME_ZONE = ZoneId.of("UTC");
+    
+    private static final String URL = "jdbc:mysql://localhost:3306/bookstore?useSSL=false&serverTimezone=UTC&useCursorFetch=true&rewriteBatchedStatements=true";
     private static final String USERNAME = "bookstore_user";
     private static final String PASSWORD = "bookstore_pass";
     private static final String DRIVER_CLASS = "com.mysql.cj.jdbc.Driver";
     
-    private static DBConnection instance;
-    private Connection connection;
+    private static final ReentrantLock lock = new ReentrantLock();
+    private static volatile Properties config = new Properties();
+    private static volatile DBConnection instance;
+    private final HikariDataSource dataSource;
+    private final ReplicaRouter replicaRouter;
+    private final int queryTimeoutSeconds;
     
-    private DBConnection() {
-        try {
-            Class.forName(DRIVER_CLASS);
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
-            throw new RuntimeException("MySQL JDBC Driver not found", e);
+    private DBConnection(Properties props) {
+        this.queryTimeoutSeconds = (int) ((getLong(props, QUERY_TIMEOUT_KEY, 0) + 999) / 1000);
+        this.dataSource = new HikariDataSource(poolConfig(props, "bookstore-pool", props.getProperty(URL_KEY, URL),
+                props.getProperty(USERNAME_KEY, USERNAME), props.getProperty(PASSWORD_KEY, PASSWORD),
+                getInt(props, POOL_MAX_SIZE_KEY, 10)));
+        registerPoolGauges(dataSource);
+        
+        String replicaUrl = props.getProperty(REPLICA_URL_KEY);
+        if (replicaUrl != null && !replicaUrl.trim().isEmpty()) {
+            HikariConfig replicaConfig = poolConfig(props, "bookstore-replica-pool", replicaUrl.trim(),
+                    props.getProperty(REPLICA_USERNAME_KEY, props.getProperty(USERNAME_KEY, USERNAME)),
+                    props.getProperty(REPLICA_PASSWORD_KEY, props.getProperty(PASSWORD_KEY, PASSWORD)),
+                    getInt(props, REPLICA_POOL_MAX_SIZE_KEY, getInt(props, POOL_MAX_SIZE_KEY, 10)));
+            replicaConfig.setReadOnly(true);
+            replicaConfig.setInitializationFailTimeout(-1);
+            this.replicaRouter = new ReplicaRouter(dataSource, new HikariDataSource(replicaConfig),
+                    getLong(props, REPLICA_MAX_LAG_KEY, 2000), getLong(props, REPLICA_HEARTBEAT_KEY, 1000));
+        } else {
+            this.replicaRouter = null;
         }
     }
     
+    private static HikariConfig poolConfig(Properties props, String poolName, String url, String username,
+                                           String password, int maxPoolSize) {
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName(poolName);
+        hikariConfig.setDriverClassName(props.getProperty(DRIVER_KEY, DRIVER_CLASS));
+        hikariConfig.setJdbcUrl(url);
+        hikariConfig.setUsername(username);
+        hikariConfig.setPassword(password);
+        hikariConfig.setMaximumPoolSize(maxPoolSize);
+        hikariConfig.setMinimumIdle(getInt(props, POOL_MIN_IDLE_KEY, 2));
+        hikariConfig.setConnectionTimeout(getLong(props, CONNECTION_TIMEOUT_KEY, 5000));
+        hikariConfig.setIdleTimeout(getLong(props, IDLE_TIMEOUT_KEY, 600000));
+        hikariConfig.setMaxLifetime(getLong(props, MAX_LIFETIME_KEY, 1800000));
+        hikariConfig.setLeakDetectionThreshold(getLong(props, LEAK_DETECTION_KEY, 0));
+        
+        hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
+        hikariConfig.addDataSourceProperty("prepStmtCacheSize", String.valueOf(getInt(props, STATEMENT_CACHE_SIZE_KEY, 250)));
+        hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", String.valueOf(getInt(props, STATEMENT_CACHE_SQL_LIMIT_KEY, 2048)));
+        hikariConfig.addDataSourceProperty("useServerPrepStmts", "true");
+        hikariConfig.addDataSourceProperty("connectionTimeZone", TIME_ZONE.getId());
+        hikariConfig.addDataSourceProperty("forceConnectionTimeZoneToSession", "true");
+        return hikariConfig;
+    }
+    
+    public static void configure(Properties props) {
+        Properties copy = new Properties();
+        copy.putAll(props);
+        config = copy;
+    }
+    
     public static DBConnection getInstance() {
-        if (instance == null) {
-            synchronized (DBConnection.class) {
+        DBConnection connection = instance;
+        if (connection == null) {
+            lock.lock();
+            try {
                 if (instance == null) {
-                    instance = new DBConnection();
+                    instance = new DBConnection(config);
                 }
+                connection = instance;
+            } finally {
+                lock.unlock();
             }
         }
-        return instance;
+        return connection;
     }
     
-    public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+    
+    public Connection getReadConnection() throws SQLException {
+        if (replicaRouter != null) {
+            Connection conn = replicaRouter.getReadConnection();
+            if (conn != null) {
+                return QueryTimeout.apply(InstrumentedConnection.wrap(conn), queryTimeoutSeconds);
+            }
         }
-        return connection;
+        return getConnection();
     }
     
-    public static Connection createConnection() throws SQLException {
+    public Connection getConnection() throws SQLException {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        long start = System.nanoTime();
         try {
-            Class.forName(DRIVER_CLASS);
-            return DriverManager.getConnection(URL, USERNAME, PASSWORD);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found", e);
+            Connection conn = dataSource.getConnection();
+            metrics.recordPoolWait(System.nanoTime() - start);
+            return QueryTimeout.apply(InstrumentedConnection.wrap(conn), queryTimeoutSeconds);
+        } catch (SQLTransientConnectionException e) {
+            metrics.recordPoolTimeout();
+            throw e;
         }
     }
     
+    public static Connection createConnection() throws SQLException {
+        return getInstance().getConnection();
+    }
+    
+    public static Connection createReadConnection() throws SQLException {
+        return getInstance().getReadConnection();
+    }
+    
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
+        shutdown();
+    }
+    
+    public static void shutdown() {
+        lock.lock();
+        try {
+            if (instance != null) {
+                if (instance.replicaRouter != null) {
+                    instance.replicaRouter.close();
+                }
+                instance.dataSource.close();
+                instance = null;
             }
+        } finally {
+            lock.unlock();
         }
     }
     
@@ -68,4 +181,27 @@ public class DBConnection {
             }
         }
     }
+    
+    private static void registerPoolGauges(HikariDataSource dataSource) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.registerGauge("active", () -> poolValue(dataSource, HikariPoolMXBean::getActiveConnections));
+        metrics.registerGauge("idle", () -> poolValue(dataSource, HikariPoolMXBean::getIdleConnections));
+        metrics.registerGauge("total", () -> poolValue(dataSource, HikariPoolMXBean::getTotalConnections));
+        metrics.registerGauge("awaiting", () -> poolValue(dataSource, HikariPoolMXBean::getThreadsAwaitingConnection));
+    }
+    
+    private static long poolValue(HikariDataSource dataSource, ToIntFunction<HikariPoolMXBean> value) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool != null && !dataSource.isClosed() ? value.applyAsInt(pool) : 0;
+    }
+    
+    private static int getInt(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        return value != null && !value.trim().isEmpty() ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+    
+    private static long getLong(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        return value != null && !value.trim().isEmpty() ? Long.parseLong(value.trim()) : defaultValue;
+    }
 }
\ No newline at end of file
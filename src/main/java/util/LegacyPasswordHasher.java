@@ -0,0 +1,58 @@
+package util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+public class LegacyPasswordHasher implements PasswordHasher {
+    private static final int DIGEST_BYTES = 32;
+    private static final int ENCODED_DIGEST_LENGTH = 44;
+    
+    private final boolean allowPlaintext;
+    
+    public LegacyPasswordHasher(boolean allowPlaintext) {
+        this.allowPlaintext = allowPlaintext;
+    }
+    
+    @Override
+    public String hash(String password) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hashedPassword = md.digest(password.getBytes());
+            return Base64.getEncoder().encodeToString(hashedPassword);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error hashing password", e);
+        }
+    }
+    
+    @Override
+    public boolean supports(String storedHash) {
+        return storedHash != null && !storedHash.startsWith("$") && (allowPlaintext || isDigest(storedHash));
+    }
+    
+    @Override
+    public boolean verify(String password, String storedHash) {
+        byte[] stored = storedHash.getBytes(StandardCharsets.UTF_8);
+        if (isDigest(storedHash)) {
+            return MessageDigest.isEqual(hash(password).getBytes(StandardCharsets.UTF_8), stored);
+        }
+        return allowPlaintext && MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored);
+    }
+    
+    @Override
+    public boolean needsRehash(String storedHash) {
+        return true;
+    }
+    
+    static boolean isDigest(String storedHash) {
+        if (storedHash.length() != ENCODED_DIGEST_LENGTH) {
+            return false;
+        }
+        try {
+            return Base64.getDecoder().decode(storedHash).length == DIGEST_BYTES;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
\ No newline at end of file
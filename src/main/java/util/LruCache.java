@@ -0,0 +1,97 @@
+package util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LruCache<K, V> {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long version;
+    
+    public LruCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (ttlMillis > 0 && System.currentTimeMillis() - entry.createdAt > ttlMillis) {
+            entries.remove(key);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+    
+    public synchronized long version() {
+        return version;
+    }
+    
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value));
+    }
+    
+    public synchronized boolean put(K key, V value, long expectedVersion) {
+        if (version != expectedVersion) {
+            return false;
+        }
+        entries.put(key, new Entry<>(value));
+        return true;
+    }
+    
+    public synchronized void remove(K key) {
+        version++;
+        entries.remove(key);
+    }
+    
+    public synchronized void clear() {
+        version++;
+        entries.clear();
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public long getHitCount() {
+        return hits.get();
+    }
+    
+    public long getMissCount() {
+        return misses.get();
+    }
+    
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+    
+    private static class Entry<V> {
+        private final V value;
+        private final long createdAt;
+        
+        Entry(V value) {
+            this.value = value;
+            this.createdAt = System.currentTimeMillis();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package util;
+
+public interface PasswordHasher {
+    
+    String hash(String password);
+    
+    boolean supports(String storedHash);
+    
+    boolean verify(String password, String storedHash);
+    
+    boolean needsRehash(String storedHash);
+}
\ No newline at end of file
@@ -4,22 +4,48 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.Properties;
 
 public class PasswordUtil {
+    public static final String HASH_ITERATIONS_KEY = "passwordHashIterations";
+    public static final String ALLOW_PLAINTEXT_KEY = "passwordAllowPlaintext";
+    
+    private static volatile PasswordHasher legacyHasher = new LegacyPasswordHasher(true);
+    
+    private static volatile PasswordHasher defaultHasher = new Pbkdf2PasswordHasher(Pbkdf2PasswordHasher.DEFAULT_ITERATIONS);
+    
+    public static void configure(Properties props) {
+        String value = props.getProperty(HASH_ITERATIONS_KEY);
+        int iterations = value != null && !value.trim().isEmpty()
+                ? Integer.parseInt(value.trim()) : Pbkdf2PasswordHasher.DEFAULT_ITERATIONS;
+        defaultHasher = new Pbkdf2PasswordHasher(iterations);
+        legacyHasher = new LegacyPasswordHasher(Boolean.parseBoolean(props.getProperty(ALLOW_PLAINTEXT_KEY, "true").trim()));
+    }
     
     public static String hashPassword(String password) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashedPassword = md.digest(password.getBytes());
-            return Base64.getEncoder().encodeToString(hashedPassword);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error hashing password", e);
-        }
+        return defaultHasher.hash(password);
     }
     
     public static boolean verifyPassword(String password, String hashedPassword) {
-        String newHash = hashPassword(password);
-        return newHash.equals(hashedPassword);
+        if (password == null || hashedPassword == null) {
+            return false;
+        }
+        PasswordHasher hasher = hasherFor(hashedPassword);
+        return hasher != null && hasher.verify(password, hashedPassword);
+    }
+    
+    public static boolean needsRehash(String hashedPassword) {
+        PasswordHasher hasher = hasherFor(hashedPassword);
+        return hasher == null || hasher != defaultHasher || defaultHasher.needsRehash(hashedPassword);
+    }
+    
+    private static PasswordHasher hasherFor(String hashedPassword) {
+        PasswordHasher current = defaultHasher;
+        if (current.supports(hashedPassword)) {
+            return current;
+        }
+        PasswordHasher legacy = legacyHasher;
+        return legacy.supports(hashedPassword) ? legacy : null;
     }
     
     public static String generateSalt() {
@@ -0,0 +1,102 @@
+package util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+    public static final String PREFIX = "$pbkdf2-sha256$";
+    public static final int DEFAULT_ITERATIONS = 210000;
+    
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+    
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+    
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+    
+    public int getIterations() {
+        return iterations;
+    }
+    
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations, HASH_BYTES);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "i=" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+    
+    @Override
+    public boolean supports(String storedHash) {
+        return storedHash != null && storedHash.startsWith(PREFIX);
+    }
+    
+    @Override
+    public boolean verify(String password, String storedHash) {
+        Encoded encoded = Encoded.parse(storedHash);
+        if (encoded == null) {
+            return false;
+        }
+        byte[] actual = derive(password, encoded.salt, encoded.iterations, encoded.hash.length);
+        return MessageDigest.isEqual(actual, encoded.hash);
+    }
+    
+    @Override
+    public boolean needsRehash(String storedHash) {
+        Encoded encoded = Encoded.parse(storedHash);
+        return encoded == null || encoded.iterations < iterations;
+    }
+    
+    private static byte[] derive(String password, byte[] salt, int iterations, int length) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, length * 8);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error hashing password", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+    
+    private static class Encoded {
+        private final int iterations;
+        private final byte[] salt;
+        private final byte[] hash;
+        
+        Encoded(int iterations, byte[] salt, byte[] hash) {
+            this.iterations = iterations;
+            this.salt = salt;
+            this.hash = hash;
+        }
+        
+        static Encoded parse(String storedHash) {
+            if (storedHash == null || !storedHash.startsWith(PREFIX)) {
+                return null;
+            }
+            String[] parts = storedHash.substring(PREFIX.length()).split("\\$");
+            if (parts.length != 3 || !parts[0].startsWith("i=")) {
+                return null;
+            }
+            try {
+                int iterations = Integer.parseInt(parts[0].substring(2));
+                byte[] salt = Base64.getDecoder().decode(parts[1]);
+                byte[] hash = Base64.getDecoder().decode(parts[2]);
+                return iterations > 0 && hash.length > 0 ? new Encoded(iterations, salt, hash) : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+public final class QueryTimeout {
+    private static final ThreadLocal<Boolean> INTERACTIVE = new ThreadLocal<>();
+    
+    private QueryTimeout() {
+    }
+    
+    public static void begin() {
+        INTERACTIVE.set(Boolean.TRUE);
+    }
+    
+    public static void end() {
+        INTERACTIVE.remove();
+    }
+    
+    private static boolean isInteractive() {
+        return INTERACTIVE.get() != null;
+    }
+    
+    static Connection apply(Connection connection, int seconds) {
+        if (connection == null || seconds <= 0 || !isInteractive()) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(QueryTimeout.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ("equals".equals(name) && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(name) && method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Statement) {
+                        ((Statement) result).setQueryTimeout(seconds);
+                    }
+                    return result;
+                });
+    }
+}
\ No newline at end of file
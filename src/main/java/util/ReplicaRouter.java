@@ -0,0 +1,174 @@
+package util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ReplicaRouter {
+    public static final String LAST_WRITE_ATTRIBUTE = ReplicaRouter.class.getName() + ".lastWrite";
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+    private static final String READ_HEARTBEAT_SQL = "SELECT beat_millis FROM replication_heartbeat WHERE id = 1";
+    private static final String WRITE_HEARTBEAT_SQL = "INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, ?) " +
+                                                      "ON DUPLICATE KEY UPDATE beat_millis = VALUES(beat_millis)";
+    
+    private static final ThreadLocal<Session> CURRENT = new ThreadLocal<>();
+    
+    private final DataSource primary;
+    private final HikariDataSource replica;
+    private final long maxLagMillis;
+    private final ScheduledExecutorService heartbeat;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private volatile long replicatedMillis;
+    private volatile long lagMillis = -1;
+    private volatile boolean healthy;
+    private long lastBeatMillis;
+    
+    ReplicaRouter(DataSource primary, HikariDataSource replica, long maxLagMillis, long heartbeatMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(this::beat, 0, heartbeatMillis, TimeUnit.MILLISECONDS);
+        
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.registerGauge("replicaLagMs", () -> lagMillis);
+        metrics.registerGauge("replicaReads", replicaReads::sum);
+        metrics.registerGauge("replicaFallbackReads", primaryReads::sum);
+    }
+    
+    public static Session begin(long lastWriteMillis) {
+        Session session = new Session(lastWriteMillis);
+        CURRENT.set(session);
+        return session;
+    }
+    
+    public static Session currentSession() {
+        return CURRENT.get();
+    }
+    
+    public static void resume(Session session) {
+        if (session != null) {
+            CURRENT.set(session);
+        }
+    }
+    
+    public static void end() {
+        CURRENT.remove();
+    }
+    
+    public static void markWrite() {
+        Session session = CURRENT.get();
+        if (session != null) {
+            session.markWrite();
+        }
+    }
+    
+    Connection getReadConnection() {
+        if (!canServe(CURRENT.get())) {
+            primaryReads.increment();
+            return null;
+        }
+        try {
+            Connection conn = replica.getConnection();
+            replicaReads.increment();
+            return conn;
+        } catch (SQLException e) {
+            setHealthy(false, "connection failed: " + e.getMessage());
+            primaryReads.increment();
+            return null;
+        }
+    }
+    
+    void close() {
+        heartbeat.shutdownNow();
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.removeGauge("replicaLagMs");
+        metrics.removeGauge("replicaReads");
+        metrics.removeGauge("replicaFallbackReads");
+        replica.close();
+    }
+    
+    private boolean canServe(Session session) {
+        return healthy && (session == null || replicatedMillis > session.lastWriteMillis);
+    }
+    
+    private void beat() {
+        try {
+            long seen = readReplicaHeartbeat();
+            replicatedMillis = seen;
+            lagMillis = lastBeatMillis > 0 ? Math.max(0, lastBeatMillis - seen) : -1;
+            setHealthy(lagMillis >= 0 && lagMillis <= maxLagMillis, "lag " + lagMillis + " ms");
+        } catch (SQLException | RuntimeException e) {
+            lagMillis = -1;
+            setHealthy(false, "heartbeat read failed: " + e.getMessage());
+        }
+        
+        long now = System.currentTimeMillis();
+        try (Connection conn = primary.getConnection();
+             PreparedStatement ps = conn.prepareStatement(WRITE_HEARTBEAT_SQL)) {
+            ps.setLong(1, now);
+            ps.executeUpdate();
+            lastBeatMillis = now;
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Failed to write replication heartbeat to the primary", e);
+        }
+    }
+    
+    private long readReplicaHeartbeat() throws SQLException {
+        try (Connection conn = replica.getConnection();
+             PreparedStatement ps = conn.prepareStatement(READ_HEARTBEAT_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+    
+    private void setHealthy(boolean value, String reason) {
+        if (healthy != value) {
+            healthy = value;
+            if (value) {
+                logger.info("Routing reads to the replica ({})", reason);
+            } else {
+                logger.warn("Routing reads to the primary ({})", reason);
+            }
+        }
+    }
+    
+    public static class Session {
+        private final long initialWriteMillis;
+        private volatile long lastWriteMillis;
+        
+        Session(long lastWriteMillis) {
+            this.initialWriteMillis = lastWriteMillis;
+            this.lastWriteMillis = lastWriteMillis;
+        }
+        
+        public void markWrite() {
+            lastWriteMillis = System.currentTimeMillis();
+        }
+        
+        public boolean hasWritten() {
+            return lastWriteMillis != initialWriteMillis;
+        }
+        
+        public long getLastWriteMillis() {
+            return lastWriteMillis;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class StripedCounter {
+    private static final int PADDING = 8;
+    
+    private final AtomicLongArray cells;
+    private final int stripes;
+    private final int mask;
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+    
+    public StripedCounter(int stripes, long initial) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = size;
+        this.mask = size - 1;
+        this.cells = new AtomicLongArray(size * PADDING);
+        spread(Math.max(0, initial));
+    }
+    
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+    
+    public void add(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Use tryAcquire or adjust to remove units");
+        }
+        cells.getAndAdd(home() * PADDING, amount);
+    }
+    
+    public boolean tryAcquire(long amount) {
+        int start = home();
+        for (int i = 0; i < stripes; i++) {
+            int index = ((start + i) & mask) * PADDING;
+            long value = cells.get(index);
+            while (value >= amount) {
+                if (cells.compareAndSet(index, value, value - amount)) {
+                    return true;
+                }
+                value = cells.get(index);
+            }
+        }
+        rebalanceLock.lock();
+        try {
+            long total = drain();
+            boolean acquired = total >= amount;
+            spread(acquired ? total - amount : total);
+            return acquired;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+    
+    public long adjust(long delta) {
+        if (delta >= 0) {
+            add(delta);
+            return delta;
+        }
+        rebalanceLock.lock();
+        try {
+            long total = drain();
+            long removed = Math.min(total, -delta);
+            spread(total - removed);
+            return -removed;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+    
+    private long drain() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.getAndSet(i * PADDING, 0);
+        }
+        return total;
+    }
+    
+    private void spread(long total) {
+        long share = total / stripes;
+        long remainder = total % stripes;
+        for (int i = 0; i < stripes; i++) {
+            long amount = share + (i < remainder ? 1 : 0);
+            if (amount > 0) {
+                cells.getAndAdd(i * PADDING, amount);
+            }
+        }
+    }
+    
+    private int home() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+    }
+}
\ No newline at end of file
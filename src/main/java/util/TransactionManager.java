@@ -0,0 +1,172 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class TransactionManager {
+    public static final int ISOLATION_DEFAULT = -1;
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    
+    private static final int MYSQL_DEADLOCK = 1213;
+    private static final int MYSQL_LOCK_WAIT_TIMEOUT = 1205;
+    private static final long BASE_BACKOFF_MS = 20;
+    
+    private static final ThreadLocal<Transaction> CURRENT = new ThreadLocal<>();
+    
+    public interface Work<T> {
+        T execute() throws SQLException;
+    }
+    
+    private TransactionManager() {
+    }
+    
+    public static <T> T execute(Work<T> work) throws SQLException {
+        return execute(ISOLATION_DEFAULT, DEFAULT_MAX_RETRIES, work);
+    }
+    
+    public static <T> T execute(int isolationLevel, Work<T> work) throws SQLException {
+        return execute(isolationLevel, DEFAULT_MAX_RETRIES, work);
+    }
+    
+    public static <T> T execute(int isolationLevel, int maxRetries, Work<T> work) throws SQLException {
+        if (CURRENT.get() != null) {
+            return work.execute();
+        }
+        
+        int attempt = 0;
+        while (true) {
+            try {
+                return executeInNewTransaction(isolationLevel, work);
+            } catch (SQLException e) {
+                if (attempt >= maxRetries || !isRetryable(e)) {
+                    throw e;
+                }
+                attempt++;
+                backoff(attempt);
+            }
+        }
+    }
+    
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+    
+    public static Connection currentConnection() {
+        Transaction tx = CURRENT.get();
+        return tx != null ? tx.connection : null;
+    }
+    
+    public static void afterCommit(Runnable callback) {
+        Transaction tx = CURRENT.get();
+        if (tx == null) {
+            callback.run();
+        } else {
+            tx.afterCommit.add(callback);
+        }
+    }
+    
+    public static void setRollbackOnly() {
+        Transaction tx = CURRENT.get();
+        if (tx == null) {
+            throw new IllegalStateException("No transaction is active on this thread");
+        }
+        tx.rollbackOnly = true;
+    }
+    
+    private static <T> T executeInNewTransaction(int isolationLevel, Work<T> work) throws SQLException {
+        Connection conn = DBConnection.createConnection();
+        Transaction tx = new Transaction(conn);
+        int previousIsolation = conn.getTransactionIsolation();
+        boolean committed = false;
+        CURRENT.set(tx);
+        
+        try {
+            conn.setAutoCommit(false);
+            if (isolationLevel != ISOLATION_DEFAULT) {
+                conn.setTransactionIsolation(isolationLevel);
+            }
+            
+            T result = work.execute();
+            
+            if (tx.rollbackOnly) {
+                conn.rollback();
+            } else {
+                conn.commit();
+                committed = true;
+            }
+            return result;
+        } catch (SQLException | RuntimeException | Error e) {
+            rollbackQuietly(conn);
+            throw e;
+        } finally {
+            CURRENT.remove();
+            try {
+                conn.setAutoCommit(true);
+                if (isolationLevel != ISOLATION_DEFAULT) {
+                    conn.setTransactionIsolation(previousIsolation);
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            DBConnection.closeConnection(conn);
+            if (committed) {
+                ReplicaRouter.markWrite();
+                tx.runAfterCommit();
+            }
+        }
+    }
+    
+    private static boolean isRetryable(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            if (current instanceof SQLTransactionRollbackException
+                    || "40001".equals(current.getSQLState())
+                    || current.getErrorCode() == MYSQL_DEADLOCK
+                    || current.getErrorCode() == MYSQL_LOCK_WAIT_TIMEOUT) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static void backoff(int attempt) throws SQLException {
+        long maxDelay = BASE_BACKOFF_MS << Math.min(attempt, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MS, maxDelay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while retrying transaction", e);
+        }
+    }
+    
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private static class Transaction {
+        private final Connection connection;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private boolean rollbackOnly;
+        
+        Transaction(Connection connection) {
+            this.connection = connection;
+        }
+        
+        void runAfterCommit() {
+            for (Runnable callback : afterCommit) {
+                try {
+                    callback.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
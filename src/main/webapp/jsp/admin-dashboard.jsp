@@ -0,0 +1,148 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/fmt" prefix="fmt" %>
+<!DOCTYPE html>
+<html>
+<head>
+    <meta charset="UTF-8">
+    <meta name="viewport" content="width=device-width, initial-scale=1.0">
+    <title>Dashboard - Bookstore</title>
+    <link href="https://cdn.jsdelivr.net/npm/bootstrap@5.1.3/dist/css/bootstrap.min.css" rel="stylesheet">
+    <link rel="stylesheet" href="${pageContext.request.contextPath}/css/style.css">
+</head>
+<body>
+    <nav class="navbar navbar-expand-lg navbar-dark bg-dark">
+        <div class="container">
+            <a class="navbar-brand" href="${pageContext.request.contextPath}/">Bookstore Online</a>
+            <ul class="navbar-nav me-auto">
+                <li class="nav-item">
+                    <a class="nav-link" href="${pageContext.request.contextPath}/books">Books</a>
+                </li>
+                <li class="nav-item">
+                    <a class="nav-link" href="${pageContext.request.contextPath}/admin/books">Manage Books</a>
+                </li>
+                <li class="nav-item">
+                    <a class="nav-link active" href="${pageContext.request.contextPath}/admin/dashboard">Dashboard</a>
+                </li>
+            </ul>
+            <ul class="navbar-nav">
+                <li class="nav-item">
+                    <span class="nav-link">Welcome, ${sessionScope.username}</span>
+                </li>
+                <li class="nav-item">
+                    <a class="nav-link" href="${pageContext.request.contextPath}/logout">Logout</a>
+                </li>
+            </ul>
+        </div>
+    </nav>
+    
+    <div class="container mt-4">
+        <div class="d-flex justify-content-between align-items-center mb-3">
+            <h2>Sales Dashboard</h2>
+            <form action="${pageContext.request.contextPath}/admin/dashboard" method="get" class="d-flex">
+                <select name="days" class="form-select me-2" onchange="this.form.submit()">
+                    <c:forEach var="option" items="7,30,90,365">
+                        <option value="${option}" ${days == option ? 'selected' : ''}>Last ${option} days</option>
+                    </c:forEach>
+                </select>
+            </form>
+        </div>
+        
+        <c:if test="${not dashboard.loaded}">
+            <div class="alert alert-warning" role="alert">
+                Sales figures are still loading. Refresh in a few seconds.
+            </div>
+        </c:if>
+        
+        <div class="row mb-4">
+            <div class="col-md-4">
+                <div class="card"><div class="card-body">
+                    <h6 class="text-muted">Revenue</h6>
+                    <h3>$<fmt:formatNumber value="${dashboard.revenue}" pattern="#,##0.00"/></h3>
+                </div></div>
+            </div>
+            <div class="col-md-4">
+                <div class="card"><div class="card-body">
+                    <h6 class="text-muted">Orders</h6>
+                    <h3>${dashboard.orderCount}</h3>
+                </div></div>
+            </div>
+            <div class="col-md-4">
+                <div class="card"><div class="card-body">
+                    <h6 class="text-muted">Books sold</h6>
+                    <h3>${dashboard.itemsSold}</h3>
+                </div></div>
+            </div>
+        </div>
+        
+        <div class="row">
+            <div class="col-md-6 mb-4">
+                <h4>Top Sellers</h4>
+                <table class="table table-sm">
+                    <thead><tr><th>Book</th><th class="text-end">Sold</th><th class="text-end">Revenue</th></tr></thead>
+                    <tbody>
+                        <c:forEach var="book" items="${dashboard.topSellers}">
+                            <tr>
+                                <td>
+                                    <a href="${pageContext.request.contextPath}/book?id=${book.bookId}">
+                                        <c:out value="${book.title}" default="Book #${book.bookId}"/>
+                                    </a>
+                                    <br><small class="text-muted"><c:out value="${book.author}"/></small>
+                                </td>
+                                <td class="text-end">${book.quantitySold}</td>
+                                <td class="text-end">$<fmt:formatNumber value="${book.revenue}" pattern="#,##0.00"/></td>
+                            </tr>
+                        </c:forEach>
+                    </tbody>
+                </table>
+            </div>
+            <div class="col-md-6 mb-4">
+                <h4>Orders by Status</h4>
+                <table class="table table-sm">
+                    <thead><tr><th>Status</th><th class="text-end">Orders</th><th class="text-end">Amount</th></tr></thead>
+                    <tbody>
+                        <c:forEach var="status" items="${dashboard.ordersByStatus}">
+                            <tr>
+                                <td>${status.status}</td>
+                                <td class="text-end">${status.orderCount}</td>
+                                <td class="text-end">$<fmt:formatNumber value="${status.totalAmount}" pattern="#,##0.00"/></td>
+                            </tr>
+                        </c:forEach>
+                    </tbody>
+                </table>
+            </div>
+        </div>
+        
+        <h4>Revenue by Day</h4>
+        <table class="table table-sm table-striped">
+            <thead><tr><th>Date</th><th class="text-end">Orders</th><th class="text-end">Books sold</th><th class="text-end">Revenue</th></tr></thead>
+            <tbody>
+                <c:forEach var="day" items="${dashboard.revenueByDay}">
+                    <tr>
+                        <td><fmt:formatDate value="${day.saleDate}" pattern="yyyy-MM-dd"/></td>
+                        <td class="text-end">${day.orderCount}</td>
+                        <td class="text-end">${day.itemsSold}</td>
+                        <td class="text-end">$<fmt:formatNumber value="${day.revenue}" pattern="#,##0.00"/></td>
+                    </tr>
+                </c:forEach>
+            </tbody>
+        </table>
+        
+        <div class="d-flex justify-content-between align-items-center mb-4">
+            <small class="text-muted">
+                Last reconciled:
+                <c:choose>
+                    <c:when test="${dashboard.reconciledAt != null}">
+                        <fmt:formatDate value="${dashboard.reconciledAt}" pattern="yyyy-MM-dd HH:mm:ss"/>
+                    </c:when>
+                    <c:otherwise>not since startup</c:otherwise>
+                </c:choose>
+            </small>
+            <form action="${pageContext.request.contextPath}/admin/dashboard" method="post">
+                <input type="hidden" name="action" value="reconcile">
+                <button type="submit" class="btn btn-outline-secondary btn-sm">Reconcile now</button>
+            </form>
+        </div>
+    </div>
+</body>
+</html>
\ No newline at end of file
@@ -1,6 +1,7 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
 <%@ taglib uri="http://java.sun.com/jsp/jstl/fmt" prefix="fmt" %>
+<%@ taglib uri="http://bookstore.com/tags" prefix="bs" %>
 <!DOCTYPE html>
 <html>
 <head>
@@ -58,86 +59,132 @@
         </div>
     </nav>
 
-    <div class="container mt-4">
-        <h2>Book Catalog</h2>
+    <bs:fragment key="${fragmentKey}" content="${cachedFragment}">
+        <div class="container mt-4">
+            <h2>Book Catalog</h2>
         
-        <!-- Search and Filter -->
-        <div class="row mb-4">
-            <div class="col-md-6">
-                <form action="${pageContext.request.contextPath}/books" method="get" class="d-flex">
-                    <input type="text" name="search" class="form-control me-2" 
-                           placeholder="Search books..." value="${searchTerm}">
-                    <button type="submit" class="btn btn-primary">Search</button>
-                </form>
-            </div>
-            <div class="col-md-6">
-                <form action="${pageContext.request.contextPath}/books" method="get">
-                    <select name="category" class="form-select" onchange="this.form.submit()">
-                        <option value="">All Categories</option>
-                        <c:forEach var="category" items="${categories}">
-                            <option value="${category}" ${selectedCategory == category ? 'selected' : ''}>
-                                ${category}
-                            </option>
-                        </c:forEach>
-                    </select>
-                </form>
+            <!-- Search and Filter -->
+            <div class="row mb-4">
+                <div class="col-md-6">
+                    <form action="${pageContext.request.contextPath}/books" method="get" class="d-flex">
+                        <input type="text" name="search" class="form-control me-2" 
+                               placeholder="Search books..." value="${searchTerm}"
+                               list="book-suggestions" autocomplete="off" id="search-input">
+                        <datalist id="book-suggestions"></datalist>
+                        <button type="submit" class="btn btn-primary">Search</button>
+                    </form>
+                </div>
+                <div class="col-md-6">
+                    <form action="${pageContext.request.contextPath}/books" method="get">
+                        <select name="category" class="form-select" onchange="this.form.submit()">
+                            <option value="">All Categories</option>
+                            <c:forEach var="category" items="${categories}">
+                                <option value="${category}" ${selectedCategory == category ? 'selected' : ''}>
+                                    ${category}
+                                </option>
+                            </c:forEach>
+                        </select>
+                    </form>
+                </div>
             </div>
-        </div>
         
-        <!-- Book Grid -->
-        <div class="row">
-            <c:forEach var="book" items="${books}">
-                <div class="col-md-3 mb-4">
-                    <div class="card h-100">
-                        <img src="${book.imageUrl != null ? book.imageUrl : '/images/default-book.jpg'}" 
-                             class="card-img-top" alt="${book.title}" style="height: 300px; object-fit: cover;">
-                        <div class="card-body d-flex flex-column">
-                            <h5 class="card-title">${book.title}</h5>
-                            <p class="card-text">
-                                <small class="text-muted">by ${book.author}</small><br>
-                                <span class="badge bg-secondary">${book.category}</span>
-                            </p>
-                            <p class="card-text flex-grow-1">
-                                ${book.description != null && book.description.length() > 100 ? 
-                                  book.description.substring(0, 100).concat('...') : book.description}
-                            </p>
-                            <div class="mt-auto">
+            <!-- Book Grid -->
+            <div class="row">
+                <c:forEach var="book" items="${books}">
+                    <div class="col-md-3 mb-4">
+                        <div class="card h-100">
+                            <img src="${book.imageUrl != null ? book.imageUrl : '/images/default-book.jpg'}" 
+                                 class="card-img-top" alt="${book.title}" style="height: 300px; object-fit: cover;">
+                            <div class="card-body d-flex flex-column">
+                                <h5 class="card-title">${book.title}</h5>
                                 <p class="card-text">
-                                    <strong>$<fmt:formatNumber value="${book.price}" pattern="#,##0.00"/></strong>
-                                    <c:choose>
-                                        <c:when test="${book.quantity > 0}">
-                                            <span class="badge bg-success">In Stock</span>
-                                        </c:when>
-                                        <c:otherwise>
-                                            <span class="badge bg-danger">Out of Stock</span>
-                                        </c:otherwise>
-                                    </c:choose>
+                                    <small class="text-muted">by ${book.author}</small><br>
+                                    <span class="badge bg-secondary">${book.category}</span>
                                 </p>
-                                <div class="d-grid gap-2">
-                                    <a href="${pageContext.request.contextPath}/book?id=${book.id}" 
-                                       class="btn btn-outline-primary">View Details</a>
-                                    <c:if test="${book.quantity > 0}">
-                                        <form action="${pageContext.request.contextPath}/cart" method="post">
-                                            <input type="hidden" name="bookId" value="${book.id}">
-                                            <input type="hidden" name="action" value="add">
-                                            <button type="submit" class="btn btn-primary w-100">Add to Cart</button>
-                                        </form>
-                                    </c:if>
+                                <p class="card-text flex-grow-1">
+                                    ${book.description != null && book.description.length() > 100 ? 
+                                      book.description.substring(0, 100).concat('...') : book.description}
+                                </p>
+                                <div class="mt-auto">
+                                    <p class="card-text">
+                                        <strong>$<fmt:formatNumber value="${book.price}" pattern="#,##0.00"/></strong>
+                                        <c:choose>
+                                            <c:when test="${book.quantity > 0}">
+                                                <span class="badge bg-success">In Stock</span>
+                                            </c:when>
+                                            <c:otherwise>
+                                                <span class="badge bg-danger">Out of Stock</span>
+                                            </c:otherwise>
+                                        </c:choose>
+                                    </p>
+                                    <div class="d-grid gap-2">
+                                        <a href="${pageContext.request.contextPath}/book?id=${book.id}" 
+                                           class="btn btn-outline-primary">View Details</a>
+                                        <c:if test="${book.quantity > 0}">
+                                            <form action="${pageContext.request.contextPath}/cart" method="post">
+                                                <input type="hidden" name="bookId" value="${book.id}">
+                                                <input type="hidden" name="action" value="add">
+                                                <button type="submit" class="btn btn-primary w-100">Add to Cart</button>
+                                            </form>
+                                        </c:if>
+                                    </div>
                                 </div>
                             </div>
                         </div>
                     </div>
+                </c:forEach>
+            </div>
+        
+            <c:if test="${empty books}">
+                <div class="alert alert-info" role="alert">
+                    No books found. Try adjusting your search criteria.
                 </div>
-            </c:forEach>
-        </div>
+            </c:if>
         
-        <c:if test="${empty books}">
-            <div class="alert alert-info" role="alert">
-                No books found. Try adjusting your search criteria.
-            </div>
-        </c:if>
-    </div>
+            <c:if test="${not empty pageCursor or not empty nextCursor}">
+                <nav class="d-flex justify-content-between mb-4">
+                    <c:choose>
+                        <c:when test="${not empty pageCursor}">
+                            <a class="btn btn-outline-secondary" href="${pageContext.request.contextPath}/books">First page</a>
+                        </c:when>
+                        <c:otherwise>
+                            <span></span>
+                        </c:otherwise>
+                    </c:choose>
+                    <c:if test="${not empty nextCursor}">
+                        <a class="btn btn-outline-primary" href="${pageContext.request.contextPath}/books?after=${nextCursor}">Next page</a>
+                    </c:if>
+                </nav>
+            </c:if>
+        </div>
+    </bs:fragment>
 
     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.1.3/dist/js/bootstrap.bundle.min.js"></script>
+    <script>
+        (function () {
+            var input = document.getElementById('search-input');
+            var list = document.getElementById('book-suggestions');
+            var timer;
+            input.addEventListener('input', function () {
+                clearTimeout(timer);
+                var q = input.value.trim();
+                if (q.length < 2) {
+                    return;
+                }
+                timer = setTimeout(function () {
+                    fetch('${pageContext.request.contextPath}/books/suggest?q=' + encodeURIComponent(q))
+                        .then(function (response) { return response.json(); })
+                        .then(function (suggestions) {
+                            list.innerHTML = '';
+                            suggestions.forEach(function (s) {
+                                var option = document.createElement('option');
+                                option.value = s.value;
+                                list.appendChild(option);
+                            });
+                        });
+                }, 150);
+            });
+        })();
+    </script>
 </body>
 </html>
\ No newline at end of file
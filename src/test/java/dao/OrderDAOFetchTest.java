@@ -0,0 +1,108 @@
+package dao;
+
+import model.Order;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class OrderDAOFetchTest {
+    private static final String DB = "order_fetch";
+    private static final int CUSTOMER_ID = 7;
+    private static final String STATUS = "PENDING";
+    
+    private Connection raw;
+    private final AtomicInteger statements = new AtomicInteger();
+    private OrderDAO orderDAO;
+    
+    @Before
+    public void setUp() throws SQLException {
+        TestDatabase.create(DB);
+        raw = TestDatabase.connect(DB);
+        Connection counting = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("prepare") || "createStatement".equals(method.getName())) {
+                        statements.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(raw, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        orderDAO = new OrderDAO(counting);
+    }
+    
+    @After
+    public void tearDown() throws SQLException {
+        raw.close();
+    }
+    
+    @Test
+    public void eagerQueriesUseTwoStatementsRegardlessOfOrderCount() throws SQLException {
+        for (int orders : new int[] {1, 40}) {
+            seedOrders(orders);
+            assertStatements(2, orders, () -> orderDAO.findAll(OrderDAO.FetchMode.EAGER));
+            assertStatements(2, orders, () -> orderDAO.findByCustomerId(CUSTOMER_ID, OrderDAO.FetchMode.EAGER));
+            assertStatements(2, orders, () -> orderDAO.findByStatus(STATUS, OrderDAO.FetchMode.EAGER));
+        }
+    }
+    
+    @Test
+    public void lazyQueriesLoadAllItemsOnFirstAccess() throws SQLException {
+        for (int orders : new int[] {1, 40}) {
+            seedOrders(orders);
+            assertStatements(2, orders, () -> touchItems(orderDAO.findAll(OrderDAO.FetchMode.LAZY)));
+            assertStatements(2, orders, () -> touchItems(orderDAO.findByCustomerId(CUSTOMER_ID, OrderDAO.FetchMode.LAZY)));
+            assertStatements(2, orders, () -> touchItems(orderDAO.findByStatus(STATUS, OrderDAO.FetchMode.LAZY)));
+        }
+    }
+    
+    @Test
+    public void lazyQueriesDoNotTouchItemsUntilAccessed() throws SQLException {
+        seedOrders(40);
+        assertStatements(1, 40, () -> orderDAO.findAll(OrderDAO.FetchMode.LAZY));
+        assertStatements(1, 40, () -> orderDAO.findByCustomerId(CUSTOMER_ID, OrderDAO.FetchMode.LAZY));
+        assertStatements(1, 40, () -> orderDAO.findByStatus(STATUS, OrderDAO.FetchMode.LAZY));
+    }
+    
+    private List<Order> touchItems(List<Order> orders) {
+        for (Order order : orders) {
+            assertEquals(2, order.getOrderItems().size());
+        }
+        return orders;
+    }
+    
+    private void assertStatements(int expected, int orderCount, Query query) throws SQLException {
+        statements.set(0);
+        List<Order> orders = query.run();
+        assertEquals(orderCount, orders.size());
+        assertEquals("statements for " + orderCount + " orders", expected, statements.get());
+    }
+    
+    private void seedOrders(int count) throws SQLException {
+        TestDatabase.execute(DB, "DELETE FROM order_items", "DELETE FROM orders");
+        String[] inserts = new String[count * 3];
+        for (int i = 1; i <= count; i++) {
+            inserts[(i - 1) * 3] = "INSERT INTO orders (id, customer_id, total_amount, status) VALUES (" +
+                    i + ", " + CUSTOMER_ID + ", 20.00, '" + STATUS + "')";
+            inserts[(i - 1) * 3 + 1] = "INSERT INTO order_items (order_id, book_id, quantity, price, subtotal) " +
+                    "VALUES (" + i + ", 1, 1, 10.00, 10.00)";
+            inserts[(i - 1) * 3 + 2] = "INSERT INTO order_items (order_id, book_id, quantity, price, subtotal) " +
+                    "VALUES (" + i + ", 2, 1, 10.00, 10.00)";
+        }
+        TestDatabase.execute(DB, inserts);
+    }
+    
+    private interface Query {
+        List<Order> run() throws SQLException;
+    }
+}
\ No newline at end of file
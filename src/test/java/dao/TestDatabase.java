@@ -0,0 +1,82 @@
+package dao;
+
+import util.DBConnection;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+public final class TestDatabase {
+    private static final String[] SCHEMA = {
+        "CREATE TABLE customers (id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(100) NOT NULL, " +
+            "email VARCHAR(100) UNIQUE NOT NULL, phone VARCHAR(20), created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+        "CREATE TABLE accounts (id INT PRIMARY KEY AUTO_INCREMENT, customer_id INT NOT NULL UNIQUE, " +
+            "username VARCHAR(50) UNIQUE NOT NULL, password VARCHAR(255) NOT NULL, role VARCHAR(20) DEFAULT 'CUSTOMER', " +
+            "is_active BOOLEAN DEFAULT TRUE, created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP, last_login TIMESTAMP NULL)",
+        "CREATE TABLE books (id INT PRIMARY KEY AUTO_INCREMENT, title VARCHAR(200) NOT NULL, " +
+            "author VARCHAR(100) NOT NULL, isbn VARCHAR(20) UNIQUE, price DECIMAL(10, 2) NOT NULL, " +
+            "quantity INT DEFAULT 0, category VARCHAR(50), description TEXT, image_url VARCHAR(500), " +
+            "published_date DATE, created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+        "CREATE TABLE orders (id INT PRIMARY KEY AUTO_INCREMENT, customer_id INT NOT NULL, " +
+            "order_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP, total_amount DECIMAL(10, 2) NOT NULL, " +
+            "status VARCHAR(20) DEFAULT 'PENDING', shipping_address VARCHAR(500), payment_method VARCHAR(50), " +
+            "notes TEXT)",
+        "CREATE TABLE order_items (id INT PRIMARY KEY AUTO_INCREMENT, order_id INT NOT NULL, " +
+            "book_id INT NOT NULL, quantity INT NOT NULL, price DECIMAL(10, 2) NOT NULL, subtotal DECIMAL(10, 2) NOT NULL)",
+        "CREATE TABLE sales_daily (sale_date DATE PRIMARY KEY, order_count INT NOT NULL DEFAULT 0, " +
+            "items_sold INT NOT NULL DEFAULT 0, revenue DECIMAL(14, 2) NOT NULL DEFAULT 0)",
+        "CREATE TABLE sales_by_status (status VARCHAR(20) PRIMARY KEY, order_count INT NOT NULL DEFAULT 0, " +
+            "total_amount DECIMAL(14, 2) NOT NULL DEFAULT 0)",
+        "CREATE TABLE sales_by_book (book_id INT PRIMARY KEY, quantity_sold INT NOT NULL DEFAULT 0, " +
+            "revenue DECIMAL(14, 2) NOT NULL DEFAULT 0)",
+        "CREATE TABLE inventory_checkpoint (id TINYINT PRIMARY KEY, journal_seq BIGINT NOT NULL)",
+        "INSERT INTO inventory_checkpoint (id, journal_seq) VALUES (1, 0)",
+        "CREATE TABLE replication_heartbeat (id TINYINT PRIMARY KEY, beat_millis BIGINT NOT NULL)"
+    };
+    
+    private TestDatabase() {
+    }
+    
+    public static String url(String name) {
+        return "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;TIME ZONE=UTC";
+    }
+    
+    public static Properties properties(String name) {
+        Properties props = new Properties();
+        props.setProperty(DBConnection.DRIVER_KEY, "org.h2.Driver");
+        props.setProperty(DBConnection.URL_KEY, url(name));
+        props.setProperty(DBConnection.USERNAME_KEY, "sa");
+        props.setProperty(DBConnection.PASSWORD_KEY, "");
+        props.setProperty(DBConnection.POOL_MIN_IDLE_KEY, "1");
+        return props;
+    }
+    
+    public static void create(String name) throws SQLException {
+        try (Connection conn = connect(name); Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            for (String sql : SCHEMA) {
+                st.execute(sql);
+            }
+        }
+    }
+    
+    public static void start(String name) throws SQLException {
+        DBConnection.shutdown();
+        create(name);
+        DBConnection.configure(properties(name));
+    }
+    
+    public static Connection connect(String name) throws SQLException {
+        return DriverManager.getConnection(url(name), "sa", "");
+    }
+    
+    public static void execute(String name, String... statements) throws SQLException {
+        try (Connection conn = connect(name); Statement st = conn.createStatement()) {
+            for (String sql : statements) {
+                st.execute(sql);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package service;
+
+import dao.BookDAO;
+import dao.TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import util.DBConnection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InventoryServiceTest {
+    private static final String DB = "inventory";
+    private static final long NEVER = 3600000;
+    private static final int BOOK = 1;
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private final AtomicReference<Runnable> beforeQuantities = new AtomicReference<>();
+    private Path journalDir;
+    private InventoryService service;
+    
+    @Before
+    public void setUp() throws Exception {
+        TestDatabase.start(DB);
+        TestDatabase.execute(DB, "INSERT INTO books (id, title, author, price, quantity) VALUES (1, 'Stocked', 'Author', 10.00, 5)");
+        journalDir = folder.newFolder("journal").toPath();
+    }
+    
+    @After
+    public void tearDown() {
+        if (service != null) {
+            service.close();
+        }
+        DBConnection.shutdown();
+    }
+    
+    @Test
+    public void recoveryReplaysUnflushedReservations() throws Exception {
+        InventoryService crashed = open();
+        assertTrue(crashed.reserve(Collections.singletonMap(BOOK, 3)).isReserved());
+        assertEquals(5, quantity());
+        
+        service = open();
+        assertEquals(2, quantity());
+        assertEquals(1, checkpoint());
+        assertEquals(Collections.singletonMap(BOOK, 2), service.reserve(Collections.singletonMap(BOOK, 3)).getShortages());
+    }
+    
+    @Test
+    public void recoveryTruncatesTornTail() throws Exception {
+        open();
+        Path segment = segments().get(0);
+        tear(segment);
+        
+        InventoryService crashed = open();
+        assertEquals(0, Files.size(segment));
+        assertTrue(crashed.reserve(Collections.singletonMap(BOOK, 2)).isReserved());
+        assertTrue(crashed.reserve(Collections.singletonMap(BOOK, 1)).isReserved());
+        assertEquals(40, Files.size(segment));
+        tear(segment);
+        
+        service = open();
+        assertEquals(2, quantity());
+        assertEquals(2, checkpoint());
+    }
+    
+    @Test
+    public void reconcileCarriesDebtUntilRestocked() throws Exception {
+        service = open();
+        assertTrue(service.reserve(Collections.singletonMap(BOOK, 1)).isReserved());
+        service.flush();
+        assertEquals(4, quantity());
+        
+        TestDatabase.execute(DB, "UPDATE books SET quantity = 0 WHERE id = 1");
+        beforeQuantities.set(() -> {
+            try {
+                assertTrue(service.reserve(Collections.singletonMap(BOOK, 1)).isReserved());
+            } catch (SQLException | IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        service.reconcile();
+        assertEquals(Collections.singletonMap(BOOK, 0), service.reserve(Collections.singletonMap(BOOK, 1)).getShortages());
+        
+        service.flush();
+        assertEquals(-1, quantity());
+        TestDatabase.execute(DB, "UPDATE books SET quantity = quantity + 10 WHERE id = 1");
+        service.reconcile();
+        
+        assertEquals(Collections.singletonMap(BOOK, 9), service.reserve(Collections.singletonMap(BOOK, 10)).getShortages());
+        assertTrue(service.reserve(Collections.singletonMap(BOOK, 9)).isReserved());
+        assertFalse(service.reserve(Collections.singletonMap(BOOK, 1)).isReserved());
+    }
+    
+    private InventoryService open() throws IOException, SQLException {
+        BookDAO bookDAO = new BookDAO() {
+            @Override
+            public Map<Integer, Integer> findQuantities(Collection<Integer> ids) throws SQLException {
+                Runnable hook = beforeQuantities.getAndSet(null);
+                if (hook != null) {
+                    hook.run();
+                }
+                return super.findQuantities(ids);
+            }
+        };
+        return new InventoryService(bookDAO, journalDir, 4, NEVER, NEVER);
+    }
+    
+    private void tear(Path segment) throws IOException {
+        Files.write(segment, new byte[] {0, 0, 0, 0, 0, 0, 0, 3, 0, 0, 0, 1, -1}, StandardOpenOption.APPEND);
+    }
+    
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+    
+    private int quantity() throws SQLException {
+        return queryLong("SELECT quantity FROM books WHERE id = 1").intValue();
+    }
+    
+    private long checkpoint() throws SQLException {
+        return queryLong("SELECT journal_seq FROM inventory_checkpoint WHERE id = 1");
+    }
+    
+    private Long queryLong(String sql) throws SQLException {
+        try (Connection conn = TestDatabase.connect(DB);
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
\ No newline at end of file
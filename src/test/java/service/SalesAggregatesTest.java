@@ -0,0 +1,118 @@
+package service;
+
+import dao.OrderDAO;
+import dao.SalesSummaryDAO;
+import dao.TestDatabase;
+import model.DailySales;
+import model.Order;
+import model.OrderItem;
+import model.StatusTotals;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import util.DBConnection;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SalesAggregatesTest {
+    private static final long NEVER = 3600000;
+    
+    private final OrderDAO orderDAO = new OrderDAO();
+    private final AtomicBoolean placeDuringSnapshot = new AtomicBoolean();
+    private SalesAggregates aggregates;
+    
+    @Before
+    public void setUp() throws Exception {
+        TestDatabase.start("sales");
+        SalesSummaryDAO summaryDAO = new SalesSummaryDAO() {
+            @Override
+            public List<DailySales> aggregateDaily(Date since) throws SQLException {
+                if (placeDuringSnapshot.compareAndSet(true, false)) {
+                    placeOrderConcurrently();
+                }
+                return super.aggregateDaily(since);
+            }
+        };
+        aggregates = new SalesAggregates(summaryDAO, 30, NEVER, NEVER);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!aggregates.getDashboard(1, 5).isLoaded() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(aggregates.getDashboard(1, 5).isLoaded());
+    }
+    
+    @After
+    public void tearDown() {
+        OrderDAO.removeOrderListener(aggregates);
+        DBConnection.shutdown();
+    }
+    
+    @Test
+    public void orderCommittedDuringReconcileIsCountedOnce() throws SQLException {
+        placeDuringSnapshot.set(true);
+        aggregates.reconcile();
+        
+        SalesAggregates.Dashboard dashboard = aggregates.getDashboard(1, 5);
+        assertEquals(1, dashboard.getOrderCount());
+        assertEquals(2, dashboard.getItemsSold());
+        assertEquals(0, new BigDecimal("20.00").compareTo(dashboard.getRevenue()));
+        assertEquals(1, pending(dashboard).getOrderCount());
+    }
+    
+    @Test
+    public void deletedOrdersLeaveTheRollup() throws SQLException {
+        Order order = placeOrder();
+        assertEquals(1, aggregates.getDashboard(1, 5).getOrderCount());
+        
+        assertTrue(orderDAO.delete(order.getId()));
+        SalesAggregates.Dashboard dashboard = aggregates.getDashboard(1, 5);
+        assertEquals(0, dashboard.getOrderCount());
+        assertEquals(0, dashboard.getItemsSold());
+        assertEquals(0, pending(dashboard).getOrderCount());
+        assertTrue(dashboard.getTopSellers().isEmpty());
+    }
+    
+    private void placeOrderConcurrently() throws SQLException {
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                placeOrder();
+            } catch (SQLException e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure.get() != null) {
+            throw new SQLException(failure.get());
+        }
+    }
+    
+    private Order placeOrder() throws SQLException {
+        Order order = new Order(1, new BigDecimal("20.00"), "1 Test Street", "COD");
+        order.getOrderItems().add(new OrderItem(1, 2, new BigDecimal("10.00")));
+        assertTrue(orderDAO.insert(order));
+        return order;
+    }
+    
+    private static StatusTotals pending(SalesAggregates.Dashboard dashboard) {
+        for (StatusTotals status : dashboard.getOrdersByStatus()) {
+            if ("PENDING".equals(status.getStatus())) {
+                return status;
+            }
+        }
+        return new StatusTotals("PENDING", 0, BigDecimal.ZERO);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package util;
+
+import dao.BookDAO;
+import dao.TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReplicaRouterTest {
+    private static final String PRIMARY = "router_primary";
+    private static final String REPLICA = "router_replica";
+    private static final long TIMEOUT_MS = 5000;
+    
+    private final BookDAO bookDAO = new BookDAO();
+    private volatile boolean replicating = true;
+    private volatile boolean running = true;
+    private Thread replication;
+    
+    @Before
+    public void setUp() throws Exception {
+        TestDatabase.start(PRIMARY);
+        TestDatabase.create(REPLICA);
+        TestDatabase.execute(REPLICA, "INSERT INTO books (id, title, author, price, quantity) " +
+                "VALUES (1, 'Replica Only', 'Nobody', 1.00, 1)");
+        
+        Properties props = TestDatabase.properties(PRIMARY);
+        props.setProperty(DBConnection.REPLICA_URL_KEY, TestDatabase.url(REPLICA));
+        props.setProperty(DBConnection.REPLICA_HEARTBEAT_KEY, "50");
+        props.setProperty(DBConnection.REPLICA_MAX_LAG_KEY, "500");
+        DBConnection.configure(props);
+        
+        replication = new Thread(this::replicateHeartbeat, "test-replication");
+        replication.setDaemon(true);
+        replication.start();
+    }
+    
+    @After
+    public void tearDown() throws InterruptedException {
+        running = false;
+        replication.join();
+        ReplicaRouter.end();
+        DBConnection.shutdown();
+    }
+    
+    @Test
+    public void readsGoToTheReplicaOnceLagIsKnown() throws SQLException {
+        assertTrue("reads never reached the replica", await(this::readsFromReplica));
+    }
+    
+    @Test
+    public void sessionThatWroteIsPinnedToThePrimaryUntilTheReplicaCatchesUp() throws Exception {
+        assertTrue(await(this::readsFromReplica));
+        replicating = false;
+        ReplicaRouter.Session session = ReplicaRouter.begin(0);
+        session.markWrite();
+        
+        assertFalse("session read its own write from a stale replica", readsFromReplica());
+        ReplicaRouter.end();
+        assertTrue("sessions without writes should still use the replica", readsFromReplica());
+        
+        ReplicaRouter.resume(session);
+        replicating = true;
+        assertTrue("session stayed pinned after the replica caught up", await(this::readsFromReplica));
+    }
+    
+    @Test
+    public void readsFallBackToThePrimaryWhenLagExceedsTheLimit() throws Exception {
+        assertTrue(await(this::readsFromReplica));
+        replicating = false;
+        assertTrue("reads stayed on a lagging replica", await(() -> !readsFromReplica()));
+        replicating = true;
+        assertTrue("reads did not return to the replica", await(this::readsFromReplica));
+    }
+    
+    @Test
+    public void transactionCommitMarksTheSessionAsWritten() throws SQLException {
+        ReplicaRouter.Session session = ReplicaRouter.begin(0);
+        TransactionManager.execute(() -> {
+            assertFalse("transactions must read from their own connection", readsFromReplica());
+            return bookDAO.updateQuantity(1, 3);
+        });
+        assertTrue(session.hasWritten());
+        
+        ReplicaRouter.Session readOnly = ReplicaRouter.begin(0);
+        bookDAO.search("Replica");
+        assertFalse(readOnly.hasWritten());
+    }
+    
+    private boolean readsFromReplica() {
+        try {
+            return !bookDAO.search("Replica Only").isEmpty();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private boolean await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            sleep(20);
+        }
+        return false;
+    }
+    
+    private void replicateHeartbeat() {
+        while (running) {
+            if (replicating) {
+                try (Connection primary = TestDatabase.connect(PRIMARY);
+                     PreparedStatement ps = primary.prepareStatement("SELECT beat_millis FROM replication_heartbeat WHERE id = 1");
+                     ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        TestDatabase.execute(REPLICA, "MERGE INTO replication_heartbeat KEY (id) VALUES (1, " + rs.getLong(1) + ")");
+                    }
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+            sleep(10);
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file